@@ -2,15 +2,19 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,31 +22,52 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new).build());
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                         ServerCallGuard serverCallGuard) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, requestCoalescer, serverCallGuard,
+                API_PREFIX);
     }
 
-    public ResponseEntity<Object> getListOfUserBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getListOfUserBookings(long userId, BookingState state, Integer from, Integer size,
+                                                              String cursor) {
+        return get(listQuery(cursor), userId, listParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> create(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<Object>> create(long userId, BookItemRequestDto requestDto) {
+        return invalidating(post("", userId, requestDto), "/items/" + requestDto.getItemId() + "#");
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> getBookingById(long userId, Long bookingId, String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getListOfOwnerBookings(Long ownerId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    public Mono<ResponseEntity<Object>> getListOfOwnerBookings(Long ownerId, BookingState state, int from, int size,
+                                                               String cursor) {
+        return get("/owner" + listQuery(cursor), ownerId, listParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> update(Long userId, Long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> update(Long userId, Long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, "");
+        return invalidating(patch("/" + bookingId + "?approved={approved}", userId, parameters, ""), "/items/");
+    }
+
+    public Mono<ResponseEntity<Object>> createBatch(long userId, List<BookItemRequestDto> requestDtos) {
+        return invalidating(post("/batch", userId, requestDtos), "/items/");
+    }
+
+    public Mono<ResponseEntity<Object>> updateBatch(long userId, List<BookingApprovalDto> approvals) {
+        return invalidating(patch("/batch", userId, approvals), "/items/");
+    }
+
+    private static String listQuery(String cursor) {
+        return "?state={state}&from={from}&size={size}" + (cursor == null ? "" : "&cursor={cursor}");
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, int from, int size, String cursor) {
+        if (cursor == null) {
+            return Map.of("state", state.name(), "from", from, "size", size);
+        }
+        return Map.of("state", state.name(), "from", from, "size", size, "cursor", cursor);
     }
 }
@@ -2,11 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.exception.BookingIntervalInvalid;
 
@@ -14,6 +17,9 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,22 +27,26 @@ import java.time.LocalDateTime;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getListOfUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                        @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+    public Mono<ResponseEntity<Object>> getListOfUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+                                                              @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getListOfUserBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+                cursor);
+        return bookingClient.getListOfUserBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestBody @Valid BookItemRequestDto requestDto) throws
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody @Valid BookItemRequestDto requestDto) throws
             BookingIntervalInvalid {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         if (!isValidInterval(requestDto.getStart(), requestDto.getEnd())) {
@@ -47,33 +57,66 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @PathVariable Long bookingId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBookingById(userId, bookingId);
+        return bookingClient.getBookingById(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getListOfOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                         @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                         @Positive @RequestParam(defaultValue = "20") int size) {
+    public Mono<ResponseEntity<Object>> getListOfOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                               @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                               @Positive @RequestParam(defaultValue = "20") int size,
+                                                               @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info(this.getClass()
-                .getSimpleName() + ": GET: userId: " + ownerId + " state: " + state + " from:" + from + " size: " + size);
-        return bookingClient.getListOfOwnerBookings(ownerId, state, from, size);
+                .getSimpleName() + ": GET: userId: " + ownerId + " state: " + state + " from:" + from + " size: " + size +
+                " cursor: " + cursor);
+        return bookingClient.getListOfOwnerBookings(ownerId, state, from, size, cursor);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable("bookingId") Long bookingId,
-                                         @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @PathVariable("bookingId") Long bookingId,
+                                               @RequestParam boolean approved) {
         log.info(this.getClass()
                 .getSimpleName() + ": PATCH: userId: " + userId + " bookingId: " + bookingId + " approved: " + approved);
         return bookingClient.update(userId, bookingId, approved);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody List<@Valid BookItemRequestDto> requestDtos)
+            throws BookingIntervalInvalid {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        checkBatchSize(requestDtos.size());
+        List<Integer> invalidEntries = IntStream.range(0, requestDtos.size())
+                .filter(i -> !isValidInterval(requestDtos.get(i).getStart(), requestDtos.get(i).getEnd()))
+                .boxed()
+                .collect(Collectors.toList());
+        if (!invalidEntries.isEmpty()) {
+            throw new BookingIntervalInvalid("Intervals of entries " + invalidEntries + " are invalid");
+        }
+        return bookingClient.createBatch(userId, requestDtos);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> updateBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody List<@Valid BookingApprovalDto> approvals) {
+        log.info("Approving {} bookings, userId={}", approvals.size(), userId);
+        checkBatchSize(approvals.size());
+        return bookingClient.updateBatch(userId, approvals);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+    }
+
     private boolean isValidInterval(LocalDateTime start, LocalDateTime end) {
         return end.isAfter(start);
     }
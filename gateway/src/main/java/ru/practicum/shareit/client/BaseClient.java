@@ -1,121 +1,200 @@
 package ru.practicum.shareit.client;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            "X-Next-Cursor");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient webClient;
+    private final ResponseCache responseCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ServerCallGuard serverCallGuard;
+    private final String cacheRegion;
+
+    public BaseClient(WebClient webClient, ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                      ServerCallGuard serverCallGuard, String cacheRegion) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.serverCallGuard = serverCallGuard;
+        this.cacheRegion = cacheRegion;
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, long userId) {
+        return cachedGet(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return responseCache.get(cacheKey(path, userId, parameters), get(path, userId, parameters));
+    }
+
+    protected Mono<ResponseEntity<Object>> conditionalGet(String path, long userId, @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatch, null);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> cachedConditionalGet(String path, long userId, @Nullable String ifNoneMatch) {
+        return responseCache.get(cacheKey(path, userId, null), conditionalGet(path, userId, ifNoneMatch))
+                .map(response -> notModified(response, ifNoneMatch));
+    }
+
+    protected Mono<ResponseEntity<Object>> invalidating(Mono<ResponseEntity<Object>> request, String... keyPrefixes) {
+        return request.doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                for (String keyPrefix : keyPrefixes) {
+                    requestCoalescer.forget(keyPrefix);
+                    responseCache.invalidate(keyPrefix);
+                }
+            }
+        });
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> longRunningPost(String path, long userId, T body,
+                                                               String timeLimiterName) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, null, timeLimiterName);
+    }
+
+    protected Duration timeout(String timeLimiterName) {
+        return serverCallGuard.timeout(timeLimiterName);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, parameters, body, null, null);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String ifNoneMatch, @Nullable String timeLimiterName) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> defaultHeaders(headers, userId, ifNoneMatch));
+        if (timeLimiterName != null) {
+            Duration timeout = serverCallGuard.timeout(timeLimiterName);
+            request = request.httpRequest(httpRequest -> httpRequest.<HttpClientRequest>getNativeRequest()
+                    .responseTimeout(timeout));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        Mono<ResponseEntity<Object>> exchange = requestWithBody.exchangeToMono(BaseClient::prepareGatewayResponse);
+        Mono<ResponseEntity<Object>> response = timeLimiterName != null
+                ? serverCallGuard.guard(cacheRegion, timeLimiterName, exchange)
+                : serverCallGuard.guard(cacheRegion, exchange);
+        if (method == HttpMethod.GET) {
+            return requestCoalescer.coalesce(cacheRegion, cacheKey(path, userId, parameters) + "#" + ifNoneMatch,
+                    response);
+        }
+        return response;
+    }
+
+    private String cacheKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return cacheRegion + UriComponentsBuilder.fromUriString(path)
+                .buildAndExpand(parameters != null ? parameters : Map.of())
+                .toUriString() + "#" + userId;
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private static void defaultHeaders(HttpHeaders headers, Long userId, @Nullable String ifNoneMatch) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> notModified(ResponseEntity<Object> response, @Nullable String ifNoneMatch) {
+        String eTag = response.getHeaders().getETag();
+        if (ifNoneMatch != null && eTag != null && response.getStatusCode().is2xxSuccessful()
+                && ifNoneMatch.equals(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
+        return response;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        return response.toEntity(byte[].class).map(BaseClient::toGatewayResponse);
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> toGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        for (String header : FORWARDED_HEADERS) {
+            List<String> values = response.getHeaders().get(header);
+            if (values != null) {
+                responseBuilder.header(header, values.toArray(new String[0]));
+            }
         }
-
-        return responseBuilder.build();
+        return responseBuilder.body(response.getBody());
     }
 }
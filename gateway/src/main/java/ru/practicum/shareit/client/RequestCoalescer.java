@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> regions;
+    private final MeterRegistry registry;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.regions:}") Set<String> regions,
+                            MeterRegistry registry) {
+        this.regions = regions;
+        this.registry = registry;
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String region, String key,
+                                                 Mono<ResponseEntity<Object>> request) {
+        if (!regions.contains(region)) {
+            return request;
+        }
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> started = request.cache();
+            Mono<ResponseEntity<Object>> flight = inFlight.putIfAbsent(key, started);
+            if (flight != null) {
+                registry.counter("gateway.requests.coalesced", "region", region).increment();
+                return flight;
+            }
+            registry.counter("gateway.requests.upstream", "region", region).increment();
+            return started.doFinally(signal -> inFlight.remove(key, started));
+        });
+    }
+
+    public void forget(String keyPrefix) {
+        inFlight.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ResponseCache implements MeterBinder {
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(@Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-server.cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Mono<ResponseEntity<Object>> get(String key, Mono<ResponseEntity<Object>> request) {
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long started = generation.get();
+            return request.doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful() && generation.get() == started) {
+                    cache.put(key, response);
+                    // an invalidation that raced the put may have missed it
+                    if (generation.get() != started) {
+                        cache.asMap().remove(key, response);
+                    }
+                }
+            });
+        });
+    }
+
+    public void invalidate(String keyPrefix) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "gateway.responses");
+    }
+}
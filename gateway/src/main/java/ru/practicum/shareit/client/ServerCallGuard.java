@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class ServerCallGuard {
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final MeterRegistry registry;
+
+    public ServerCallGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                           TimeLimiterRegistry timeLimiterRegistry, MeterRegistry registry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.registry = registry;
+    }
+
+    public Mono<ResponseEntity<Object>> guard(String region, Mono<ResponseEntity<Object>> request) {
+        return guard(region, region.substring(1), request);
+    }
+
+    public Mono<ResponseEntity<Object>> guard(String region, String timeLimiterName,
+                                              Mono<ResponseEntity<Object>> request) {
+        String name = region.substring(1);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(timeLimiterName);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        return request
+                .flatMap(ServerCallGuard::failOnServerError)
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorResume(ServerErrorResponse.class, e -> Mono.just(e.getResponse()))
+                .onErrorResume(CallNotPermittedException.class,
+                        e -> reject(name, "circuit_open", HttpStatus.SERVICE_UNAVAILABLE, e))
+                .onErrorResume(BulkheadFullException.class,
+                        e -> reject(name, "bulkhead_full", HttpStatus.SERVICE_UNAVAILABLE, e))
+                .onErrorResume(TimeoutException.class,
+                        e -> reject(name, "timeout", HttpStatus.GATEWAY_TIMEOUT, e))
+                .onErrorResume(WebClientRequestException.class,
+                        e -> reject(name, "connection_failed", HttpStatus.BAD_GATEWAY, e));
+    }
+
+    public Duration timeout(String timeLimiterName) {
+        return timeLimiterRegistry.timeLimiter(timeLimiterName).getTimeLimiterConfig().getTimeoutDuration();
+    }
+
+    private static Mono<ResponseEntity<Object>> failOnServerError(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is5xxServerError()) {
+            return Mono.error(new ServerErrorResponse(response));
+        }
+        return Mono.just(response);
+    }
+
+    private Mono<ResponseEntity<Object>> reject(String name, String reason, HttpStatus status, Throwable e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        log.warn("Server call to {} rejected: {}", name, message);
+        registry.counter("gateway.requests.rejected", "client", name, "reason", reason).increment();
+        ResponseEntity<Object> response = ResponseEntity.status(status).body(Map.of("error", message));
+        return Mono.just(response);
+    }
+
+    private static class ServerErrorResponse extends RuntimeException {
+        private final transient ResponseEntity<Object> response;
+
+        ServerErrorResponse(ResponseEntity<Object> response) {
+            super("Server responded with " + response.getStatusCode(), null, false, false);
+            this.response = response;
+        }
+
+        ResponseEntity<Object> getResponse() {
+            return response;
+        }
+    }
+}
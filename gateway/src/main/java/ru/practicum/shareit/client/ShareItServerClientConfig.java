@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class ShareItServerClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit-server.pool.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.pool.max-idle-time:15s}") Duration maxIdleTime,
+            @Value("${shareit-server.pool.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${shareit-server.pool.evict-in-background:30s}") Duration evictionInterval) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareItServerConnector(ConnectionProvider shareItServerConnectionProvider,
+            @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.response-timeout:10s}") Duration responseTimeout,
+            @Value("${shareit-server.h2c:false}") boolean h2c) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout);
+        if (h2c) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
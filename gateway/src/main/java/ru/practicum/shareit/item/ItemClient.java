@@ -2,37 +2,60 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final String IMPORT_TIME_LIMITER = "items-import";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                      ServerCallGuard serverCallGuard) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, requestCoalescer, serverCallGuard,
+                API_PREFIX);
+    }
+
+    public Mono<ResponseEntity<Object>> get(Long userId, Long id, String ifNoneMatch) {
+        return cachedConditionalGet("/" + id, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long userId, Long id, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
         );
+        return get("/" + id + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> get(Long userId, Long id) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<Object>> getAvailability(Long userId, List<Long> ids, LocalDateTime from,
+                                                        LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "ids", ids.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                "from", from,
+                "to", to
+        );
+        return get("/availability?ids={ids}&from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getUserItems(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getUserItems(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,23 +63,33 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(Long userId,String searchString, int from, int size) {
+    public Mono<ResponseEntity<Object>> search(Long userId, String searchString, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", searchString,
                 "from", from,
                 "size", size);
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return cachedGet("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> add(Long userId, ItemDto itemDto) {
+        return invalidating(post("", userId, itemDto), API_PREFIX + "/search", "/requests");
+    }
+
+    public Mono<ResponseEntity<Object>> importItems(long userId, List<ItemDto> itemDtos) {
+        return invalidating(longRunningPost("/import", userId, itemDtos, IMPORT_TIME_LIMITER),
+                API_PREFIX + "/search", "/requests");
     }
 
-    public ResponseEntity<Object> add(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Duration getImportChunkTimeout() {
+        return timeout(IMPORT_TIME_LIMITER);
     }
 
-    public ResponseEntity<Object> update(Long userId, Long id, ItemDto itemDto) {
-        return patch("/" + id, userId, itemDto);
+    public Mono<ResponseEntity<Object>> update(Long userId, Long id, ItemDto itemDto) {
+        return invalidating(patch("/" + id, userId, itemDto), API_PREFIX + "/" + id + "#", API_PREFIX + "/search",
+                "/requests");
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentDto commentDto) {
+        return invalidating(post("/" + itemId + "/comment", userId, commentDto), API_PREFIX + "/" + itemId + "#");
     }
 }
@@ -2,16 +2,25 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -19,54 +28,100 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final int MAX_AVAILABILITY_BATCH_SIZE = 100;
 
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> get(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                      @PathVariable("id") Long id) {
+    public Mono<ResponseEntity<Object>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @PathVariable("id") Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " itemId: " + id);
-        return itemClient.get(userId, id);
+        return itemClient.get(userId, id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PathVariable("id") Long id,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info(this.getClass().getSimpleName() + ": GET: availability: userId: " + userId + " itemId: " + id
+                + " from: " + from + " to: " + to);
+        checkInterval(from, to);
+        return itemClient.getAvailability(userId, id, from, to);
+    }
+
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam List<Long> ids,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info(this.getClass().getSimpleName() + ": GET: availability: userId: " + userId + " itemIds: " + ids
+                + " from: " + from + " to: " + to);
+        if (ids.isEmpty() || ids.size() > MAX_AVAILABILITY_BATCH_SIZE) {
+            throw new IllegalArgumentException("Number of items must be between 1 and " + MAX_AVAILABILITY_BATCH_SIZE);
+        }
+        checkInterval(from, to);
+        return itemClient.getAvailability(userId, ids, from, to);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                               @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+    public Mono<ResponseEntity<Object>> getUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                     @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " from: " + from + " size: " + size);
         return itemClient.getUserItems(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(name = "text") String searchString,
-                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+    public Mono<ResponseEntity<Object>> search(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam(name = "text") String searchString,
+                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                               @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
         log.info(this.getClass().getSimpleName() + ": GET: text: " + searchString + " from: " + " size: " + size);
         return itemClient.search(userId, searchString, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                      @RequestBody @Validated(ItemValidationGroups.Add.class) ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestBody @Validated(ItemValidationGroups.Add.class) ItemDto itemDto) {
         log.info(this.getClass().getSimpleName() + ": POST: userId: " + userId + " item: " + itemDto);
         return itemClient.add(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public DeferredResult<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              InputStream body) {
+        log.info(this.getClass().getSimpleName() + ": POST: import: userId: " + userId);
+        DeferredResult<ResponseEntity<Object>> result =
+                new DeferredResult<>(itemImporter.getRequestTimeout().toMillis());
+        Disposable importing = itemImporter.importItems(userId, body)
+                .subscribe(result::setResult, result::setErrorResult);
+        result.onTimeout(importing::dispose);
+        return result;
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("id") Long id,
-                                         @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("id") Long id,
+                                               @RequestBody @Valid ItemDto itemDto) {
         log.info(this.getClass()
                 .getSimpleName() + ": PATCH: userId: " + userId + " itemId: " + id + " item: " + itemDto);
         return itemClient.update(userId, id, itemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable("itemId") Long itemId,
-                                             @RequestBody @Valid CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @PathVariable("itemId") Long itemId,
+                                                   @RequestBody @Valid CommentDto commentDto) {
         log.info(this.getClass().getSimpleName() + ": POST: userId: " + userId + " itemId: " + itemId + " comment: "
                 + commentDto);
         return itemClient.addComment(userId, itemId, commentDto);
     }
+
+    private void checkInterval(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Interval from " + from + " to " + to + " is invalid");
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemImporter {
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final Duration REQUEST_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Duration timeout;
+
+    public ItemImporter(ItemClient itemClient, ObjectMapper objectMapper, Validator validator,
+                        @Value("${shareit-server.import.timeout:5m}") Duration timeout) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.timeout = timeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return timeout.plus(itemClient.getImportChunkTimeout()).plus(REQUEST_TIMEOUT_MARGIN);
+    }
+
+    // Every chunk is committed by the server on its own. When a chunk fails or the import runs out of time,
+    // the chunks before it stay imported, the rest of the stream is skipped and the result is not completed.
+    public Mono<ResponseEntity<Object>> importItems(long userId, InputStream body) {
+        ItemImportResultDto result = new ItemImportResultDto(0, 0, new ArrayList<>(), false);
+        AtomicLong position = new AtomicLong();
+        AtomicLong processed = new AtomicLong();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return Flux.using(() -> objectMapper.readerFor(JsonNode.class).<JsonNode>readValues(body),
+                        entries -> Flux.fromIterable(() -> entries), ItemImporter::close)
+                .onErrorResume(RuntimeException.class, e -> {
+                    reportFailure(result, position.get(), "Malformed JSON: " + e.getMessage());
+                    return Flux.empty();
+                })
+                .<Tuple2<Long, ItemDto>>handle((entry, sink) -> {
+                    long index = position.getAndIncrement();
+                    ItemDto itemDto;
+                    try {
+                        itemDto = objectMapper.treeToValue(entry, ItemDto.class);
+                    } catch (JsonProcessingException e) {
+                        reportFailure(result, index, "Entry is not an item: " + e.getOriginalMessage());
+                        return;
+                    }
+                    Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto,
+                            ItemValidationGroups.Add.class);
+                    if (!violations.isEmpty()) {
+                        reportFailure(result, index, violations.stream()
+                                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining(", ")));
+                        return;
+                    }
+                    sink.next(Tuples.of(index, itemDto));
+                })
+                .buffer(IMPORT_CHUNK_SIZE)
+                .concatMap(chunk -> importChunk(userId, chunk, deadline)
+                        .doOnNext(response -> {
+                            merge(result, chunk, response);
+                            processed.set(chunk.get(chunk.size() - 1).getT1() + 1);
+                        }), 1)
+                .takeUntil(response -> !response.getStatusCode().is2xxSuccessful())
+                .last(ResponseEntity.ok().build())
+                .map(response -> {
+                    result.setCompleted(response.getStatusCode().is2xxSuccessful());
+                    if (!result.isCompleted()) {
+                        result.getErrors().add(new ItemImportErrorDto(processed.get(),
+                                "Import stopped, entries from this index on were skipped"));
+                    }
+                    return result.isCompleted() || result.getImported() > 0
+                            ? ResponseEntity.<Object>ok(result) : response;
+                })
+                .doOnNext(response -> log.info(this.getClass().getSimpleName() + ": import: userId: " + userId
+                        + " imported: " + result.getImported() + " failed: " + result.getFailed()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<ResponseEntity<Object>> importChunk(long userId, List<Tuple2<Long, ItemDto>> chunk, long deadline) {
+        return Mono.defer(() -> {
+            if (System.nanoTime() - deadline > 0) {
+                ResponseEntity<Object> timedOut = ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+                return Mono.just(timedOut);
+            }
+            return itemClient.importItems(userId, chunk.stream()
+                    .map(Tuple2::getT2)
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    private void merge(ItemImportResultDto result, List<Tuple2<Long, ItemDto>> chunk,
+                       ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            try {
+                ItemImportResultDto chunkResult = objectMapper.readValue((byte[]) response.getBody(),
+                        ItemImportResultDto.class);
+                result.setImported(result.getImported() + chunkResult.getImported());
+                result.setFailed(result.getFailed() + chunkResult.getFailed());
+                for (ItemImportErrorDto error : chunkResult.getErrors()) {
+                    addError(result, chunk.get((int) error.getIndex()).getT1(), error.getError());
+                }
+                return;
+            } catch (IOException e) {
+                log.warn("Unreadable import result from server: {}", e.getMessage());
+            }
+        }
+        for (Tuple2<Long, ItemDto> entry : chunk) {
+            reportFailure(result, entry.getT1(), "Server responded with " + response.getStatusCodeValue());
+        }
+    }
+
+    private static void reportFailure(ItemImportResultDto result, long index, String error) {
+        result.setFailed(result.getFailed() + 1);
+        addError(result, index, error);
+    }
+
+    private static void addError(ItemImportResultDto result, long index, String error) {
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(index, error));
+        }
+    }
+
+    private static void close(MappingIterator<JsonNode> entries) {
+        try {
+            entries.close();
+        } catch (IOException e) {
+            log.warn("Failed to close import stream: {}", e.getMessage());
+        }
+    }
+}
@@ -2,12 +2,14 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -18,32 +20,30 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                             ServerCallGuard serverCallGuard) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, requestCoalescer, serverCallGuard,
+                API_PREFIX);
     }
 
-    public ResponseEntity<Object> add(Long requestorId, ItemRequestDto itemRequestDto) {
-        return post("", requestorId, itemRequestDto);
+    public Mono<ResponseEntity<Object>> add(Long requestorId, ItemRequestDto itemRequestDto) {
+        return invalidating(post("", requestorId, itemRequestDto), API_PREFIX);
     }
 
-    public ResponseEntity<Object> getById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(Long userId, Long requestId) {
+        return cachedGet("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllByRequestor(Long requestorId) {
-        return get("", requestorId);
+    public Mono<ResponseEntity<Object>> getAllByRequestor(Long requestorId) {
+        return cachedGet("", requestorId);
     }
 
-    public ResponseEntity<Object> getAll(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAll(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all", userId, parameters);
+        return cachedGet("/all?from={from}&size={size}", userId, parameters);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -22,30 +23,30 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") Long requestorId,
-                                      @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                            @RequestBody @Valid ItemRequestDto itemRequestDto) {
         log.info(this.getClass()
                 .getSimpleName() + ": POST: userId: " + requestorId + " itemRequest: " + itemRequestDto);
         return itemRequestClient.add(requestorId, itemRequestDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @PathVariable("requestId") Long requestId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable("requestId") Long requestId) {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " requestId: " + requestId);
         return itemRequestClient.getById(userId, requestId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByRequestor(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
+    public Mono<ResponseEntity<Object>> getAllByRequestor(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + requestorId);
         return itemRequestClient.getAllByRequestor(requestorId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                         @Positive @RequestParam(defaultValue = "20") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                               @Positive @RequestParam(defaultValue = "20") int size) {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " from: " + from + " size: " + size);
         return itemRequestClient.getAll(userId, from, size);
     }
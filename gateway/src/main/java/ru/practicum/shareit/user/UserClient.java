@@ -2,12 +2,14 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -15,32 +17,30 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                      ServerCallGuard serverCallGuard) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), responseCache, requestCoalescer, serverCallGuard,
+                API_PREFIX);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> get(Long id) {
+    public Mono<ResponseEntity<Object>> get(Long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> add(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> add(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(Long id, UserDto userDto) {
-        return patch("/" + id, userDto);
+    public Mono<ResponseEntity<Object>> update(Long id, UserDto userDto) {
+        return invalidating(patch("/" + id, userDto), "");
     }
 
-    public ResponseEntity<Object> delete(Long id) {
-        return delete("/" + id);
+    public Mono<ResponseEntity<Object>> delete(Long id) {
+        return invalidating(delete("/" + id), "");
     }
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.client.StubExchange;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingClientTests {
+    private final StubExchange server = new StubExchange();
+    private final ItemClient itemClient = new ItemClient(StubExchange.SERVER_URL, server.builder(),
+            server.responseCache(), server.requestCoalescer(), server.serverCallGuard());
+    private final BookingClient bookingClient = new BookingClient(StubExchange.SERVER_URL, server.builder(),
+            server.responseCache(), server.requestCoalescer(), server.serverCallGuard());
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void createInvalidatesBookedItemTest() {
+        itemClient.get(1L, 1L, null).block();
+        itemClient.get(1L, 10L, null).block();
+        bookingClient.create(2L, new BookItemRequestDto(1L, start, start.plusDays(1))).block();
+        itemClient.get(1L, 1L, null).block();
+        itemClient.get(1L, 10L, null).block();
+        Assertions.assertEquals(2, server.calls("GET /items/1"));
+        Assertions.assertEquals(1, server.calls("GET /items/10"));
+    }
+
+    @Test
+    void approvalInvalidatesItemsAndSearchTest() {
+        itemClient.get(1L, 1L, null).block();
+        itemClient.search(2L, "drill", 0, 10).block();
+        bookingClient.update(1L, 1L, true).block();
+        itemClient.get(1L, 1L, null).block();
+        itemClient.search(2L, "drill", 0, 10).block();
+        Assertions.assertEquals(2, server.calls("GET /items/1"));
+        Assertions.assertEquals(2, server.calls("GET /items/search"));
+    }
+
+    @Test
+    void batchApprovalInvalidatesItemsTest() {
+        itemClient.get(1L, 1L, null).block();
+        bookingClient.updateBatch(1L, List.of(new BookingApprovalDto(1L, true))).block();
+        itemClient.get(1L, 1L, null).block();
+        Assertions.assertEquals(2, server.calls("GET /items/1"));
+    }
+
+    @Test
+    void availabilityReflectsApprovalTest() {
+        itemClient.getAvailability(2L, List.of(1L), start, start.plusDays(1)).block();
+        bookingClient.update(1L, 1L, true).block();
+        itemClient.getAvailability(2L, List.of(1L), start, start.plusDays(1)).block();
+        Assertions.assertEquals(2, server.calls("GET /items/availability"));
+    }
+}
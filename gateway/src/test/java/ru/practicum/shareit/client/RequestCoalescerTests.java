@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescerTests {
+    private static final String REGION = "/items";
+    private static final String KEY = "/items/1#1#null";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer(Set.of(REGION), meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneUpstreamCallTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(Duration.ofMillis(100));
+        Tuple2<ResponseEntity<Object>, ResponseEntity<Object>> responses = Mono.zip(
+                requestCoalescer.coalesce(REGION, KEY, upstream),
+                requestCoalescer.coalesce(REGION, KEY, upstream)).block();
+        Assertions.assertEquals(HttpStatus.OK, responses.getT1().getStatusCode());
+        Assertions.assertSame(responses.getT1(), responses.getT2());
+        Assertions.assertEquals(1, upstreamCalls.get());
+        Assertions.assertEquals(1, counter("gateway.requests.upstream"));
+        Assertions.assertEquals(1, counter("gateway.requests.coalesced"));
+    }
+
+    @Test
+    void differentKeysAreNotCoalescedTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(Duration.ofMillis(100));
+        Mono.zip(requestCoalescer.coalesce(REGION, KEY, upstream),
+                requestCoalescer.coalesce(REGION, "/items/2#1#null", upstream)).block();
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void completedCallIsNotReusedTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(Duration.ZERO);
+        requestCoalescer.coalesce(REGION, KEY, upstream).block();
+        requestCoalescer.coalesce(REGION, KEY, upstream).block();
+        Assertions.assertEquals(2, upstreamCalls.get());
+        Assertions.assertEquals(0, counter("gateway.requests.coalesced"));
+    }
+
+    @Test
+    void errorIsNotCachedAndNextCallRetriesTest() {
+        Mono<ResponseEntity<Object>> upstream = Mono.defer(() -> upstreamCalls.incrementAndGet() == 1
+                ? Mono.<ResponseEntity<Object>>error(new IllegalStateException("Connection reset"))
+                : Mono.just(ok()));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> requestCoalescer.coalesce(REGION, KEY, upstream).block());
+        ResponseEntity<Object> response = requestCoalescer.coalesce(REGION, KEY, upstream).block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void unconfiguredRegionPassesThroughTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(Duration.ofMillis(100));
+        Mono.zip(requestCoalescer.coalesce("/bookings", KEY, upstream),
+                requestCoalescer.coalesce("/bookings", KEY, upstream)).block();
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    private Mono<ResponseEntity<Object>> upstream(Duration latency) {
+        return Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.delay(latency).map(tick -> ok());
+        });
+    }
+
+    private static ResponseEntity<Object> ok() {
+        return ResponseEntity.ok(Map.of("id", 1));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name, "region", REGION).count();
+    }
+}
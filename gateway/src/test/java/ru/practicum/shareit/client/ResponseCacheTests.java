@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResponseCacheTests {
+    private final ResponseCache responseCache = new ResponseCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void successfulResponseIsCachedTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(HttpStatus.OK);
+        responseCache.get("/items/1#1", upstream).block();
+        ResponseEntity<Object> response = responseCache.get("/items/1#1", upstream).block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void unsuccessfulResponseIsNotCachedTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(HttpStatus.NOT_FOUND);
+        responseCache.get("/items/1#1", upstream).block();
+        ResponseEntity<Object> response = responseCache.get("/items/1#1", upstream).block();
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void errorIsNotCachedTest() {
+        Mono<ResponseEntity<Object>> upstream = Mono.defer(() -> upstreamCalls.incrementAndGet() == 1
+                ? Mono.<ResponseEntity<Object>>error(new IllegalStateException("Connection reset"))
+                : Mono.just(response(HttpStatus.OK)));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> responseCache.get("/items/1#1", upstream).block());
+        ResponseEntity<Object> response = responseCache.get("/items/1#1", upstream).block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void invalidateRemovesOnlyMatchingPrefixTest() {
+        Mono<ResponseEntity<Object>> upstream = upstream(HttpStatus.OK);
+        responseCache.get("/items/1#1", upstream).block();
+        responseCache.get("/items/1#2", upstream).block();
+        responseCache.get("/items/10#1", upstream).block();
+        responseCache.invalidate("/items/1#");
+        responseCache.get("/items/1#1", upstream).block();
+        responseCache.get("/items/1#2", upstream).block();
+        responseCache.get("/items/10#1", upstream).block();
+        Assertions.assertEquals(5, upstreamCalls.get());
+    }
+
+    @Test
+    void responseStartedBeforeInvalidationIsNotCachedTest() {
+        Mono<ResponseEntity<Object>> racing = Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            responseCache.invalidate("/items/");
+            return Mono.just(response(HttpStatus.OK));
+        });
+        responseCache.get("/items/1#1", racing).block();
+        responseCache.get("/items/1#1", upstream(HttpStatus.OK)).block();
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    private Mono<ResponseEntity<Object>> upstream(HttpStatus status) {
+        return Mono.fromSupplier(() -> {
+            upstreamCalls.incrementAndGet();
+            return response(status);
+        });
+    }
+
+    private static ResponseEntity<Object> response(HttpStatus status) {
+        return ResponseEntity.status(status).body(Map.of("status", status.value()));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+public class ServerCallGuardTests {
+    private static final String REGION = "/items";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(
+            CircuitBreakerConfig.custom()
+                    .slidingWindowSize(4)
+                    .minimumNumberOfCalls(4)
+                    .failureRateThreshold(50)
+                    .build());
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+            .timeoutDuration(Duration.ofMillis(200))
+            .build());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ServerCallGuard serverCallGuard = new ServerCallGuard(circuitBreakerRegistry, bulkheadRegistry,
+            timeLimiterRegistry, meterRegistry);
+
+    @Test
+    void fastResponsePassesThroughTest() {
+        ResponseEntity<Object> response = serverCallGuard.guard(REGION, stub(Duration.ofMillis(10), HttpStatus.OK))
+                .block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(1, circuitBreaker().getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void slowResponseTimesOutTest() {
+        ResponseEntity<Object> response = serverCallGuard.guard(REGION, stub(Duration.ofSeconds(2), HttpStatus.OK))
+                .block();
+        Assertions.assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        Assertions.assertEquals(1, circuitBreaker().getMetrics().getNumberOfFailedCalls());
+        Assertions.assertEquals(1, rejected("timeout"));
+    }
+
+    @Test
+    void serverErrorIsReturnedAndRecordedAsFailureTest() {
+        for (int i = 0; i < 4; i++) {
+            ResponseEntity<Object> response = serverCallGuard.guard(REGION,
+                    stub(Duration.ZERO, HttpStatus.INTERNAL_SERVER_ERROR)).block();
+            Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker().getState());
+        ResponseEntity<Object> response = serverCallGuard.guard(REGION, stub(Duration.ZERO, HttpStatus.OK)).block();
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals(1, rejected("circuit_open"));
+    }
+
+    @Test
+    void bulkheadRejectionDoesNotCountAsFailureTest() {
+        Disposable slowCall = serverCallGuard.guard(REGION, stub(Duration.ofMillis(150), HttpStatus.OK)).subscribe();
+        ResponseEntity<Object> response = serverCallGuard.guard(REGION, stub(Duration.ZERO, HttpStatus.OK)).block();
+        slowCall.dispose();
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals(1, rejected("bulkhead_full"));
+        Assertions.assertEquals(0, circuitBreaker().getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void connectionFailureIsBadGatewayTest() {
+        ResponseEntity<Object> response = serverCallGuard.guard(REGION, Mono.error(new WebClientRequestException(
+                new ConnectException(), HttpMethod.GET, URI.create("http://localhost:9090/items"),
+                new HttpHeaders()))).block();
+        Assertions.assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+        Assertions.assertEquals(1, rejected("connection_failed"));
+    }
+
+    @Test
+    void rejectionWithoutMessageTest() {
+        ResponseEntity<Object> response = serverCallGuard.guard(REGION, Mono.error(new TimeoutException()))
+                .block();
+        Assertions.assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        Assertions.assertEquals(Map.of("error", "TimeoutException"), response.getBody());
+    }
+
+    private static Mono<ResponseEntity<Object>> stub(Duration latency, HttpStatus status) {
+        return Mono.delay(latency).map(tick -> ResponseEntity.status(status).body(Map.of("status", status.value())));
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(REGION.substring(1));
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.counter("gateway.requests.rejected", "client", REGION.substring(1), "reason", reason)
+                .count();
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class StubExchange implements ExchangeFunction {
+    public static final String SERVER_URL = "http://shareit-server";
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Map<String, Deque<Supplier<ClientResponse>>> responses = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCache responseCache = new ResponseCache(100, Duration.ofMinutes(1));
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer(Set.of("/items", "/requests"),
+            meterRegistry);
+    private final ServerCallGuard serverCallGuard = new ServerCallGuard(CircuitBreakerRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), meterRegistry);
+
+    @Override
+    public Mono<ClientResponse> exchange(ClientRequest request) {
+        String call = request.method() + " " + request.url().getPath();
+        calls.computeIfAbsent(call, key -> new AtomicInteger()).incrementAndGet();
+        Deque<Supplier<ClientResponse>> queued = responses.get(call);
+        if (queued == null) {
+            return Mono.just(response(HttpStatus.OK, "{}"));
+        }
+        synchronized (queued) {
+            return Mono.just((queued.size() > 1 ? queued.poll() : queued.peek()).get());
+        }
+    }
+
+    public void respond(String call, HttpStatus status) {
+        respond(call, status, "{}");
+    }
+
+    public void respond(String call, HttpStatus status, String body) {
+        Deque<Supplier<ClientResponse>> queued = responses.computeIfAbsent(call, key -> new ArrayDeque<>());
+        synchronized (queued) {
+            queued.add(() -> response(status, body));
+        }
+    }
+
+    public int calls(String call) {
+        AtomicInteger count = calls.get(call);
+        return count != null ? count.get() : 0;
+    }
+
+    public WebClient.Builder builder() {
+        return WebClient.builder().exchangeFunction(this);
+    }
+
+    public ResponseCache responseCache() {
+        return responseCache;
+    }
+
+    public RequestCoalescer requestCoalescer() {
+        return requestCoalescer;
+    }
+
+    public ServerCallGuard serverCallGuard() {
+        return serverCallGuard;
+    }
+
+    private static ClientResponse response(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
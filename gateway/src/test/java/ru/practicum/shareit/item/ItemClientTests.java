@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.client.StubExchange;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItemClientTests {
+    private final StubExchange server = new StubExchange();
+    private final ItemClient itemClient = new ItemClient(StubExchange.SERVER_URL, server.builder(),
+            server.responseCache(), server.requestCoalescer(), server.serverCallGuard());
+    private final ItemDto itemDto = new ItemDto(1L, "Drill", "Cordless drill", true, null, null);
+
+    @Test
+    void searchIsCachedUntilItemAddedTest() {
+        itemClient.search(1L, "drill", 0, 10).block();
+        itemClient.search(2L, "drill", 0, 10).block();
+        itemClient.search(1L, "drill", 0, 10).block();
+        Assertions.assertEquals(2, server.calls("GET /items/search"));
+        itemClient.add(1L, itemDto).block();
+        itemClient.search(1L, "drill", 0, 10).block();
+        itemClient.search(2L, "drill", 0, 10).block();
+        Assertions.assertEquals(4, server.calls("GET /items/search"));
+    }
+
+    @Test
+    void itemUpdateInvalidatesItemAndSearchTest() {
+        itemClient.get(1L, 1L, null).block();
+        itemClient.get(1L, 10L, null).block();
+        itemClient.search(1L, "drill", 0, 10).block();
+        itemClient.update(1L, 1L, itemDto).block();
+        itemClient.get(1L, 1L, null).block();
+        itemClient.get(1L, 10L, null).block();
+        itemClient.search(1L, "drill", 0, 10).block();
+        Assertions.assertEquals(2, server.calls("GET /items/1"));
+        Assertions.assertEquals(1, server.calls("GET /items/10"));
+        Assertions.assertEquals(2, server.calls("GET /items/search"));
+    }
+
+    @Test
+    void failedUpdateKeepsCacheTest() {
+        server.respond("PATCH /items/1", HttpStatus.NOT_FOUND);
+        itemClient.get(1L, 1L, null).block();
+        itemClient.search(1L, "drill", 0, 10).block();
+        itemClient.update(2L, 1L, itemDto).block();
+        itemClient.get(1L, 1L, null).block();
+        itemClient.search(1L, "drill", 0, 10).block();
+        Assertions.assertEquals(1, server.calls("GET /items/1"));
+        Assertions.assertEquals(1, server.calls("GET /items/search"));
+    }
+
+    @Test
+    void commentInvalidatesCommentedItemTest() {
+        itemClient.get(1L, 1L, null).block();
+        itemClient.get(2L, 1L, null).block();
+        itemClient.get(1L, 10L, null).block();
+        itemClient.addComment(2L, 1L, new CommentDto(0, "Works fine", null, null, null)).block();
+        itemClient.get(1L, 1L, null).block();
+        itemClient.get(2L, 1L, null).block();
+        itemClient.get(1L, 10L, null).block();
+        Assertions.assertEquals(4, server.calls("GET /items/1"));
+        Assertions.assertEquals(1, server.calls("GET /items/10"));
+    }
+
+    @Test
+    void availabilityIsNeverCachedTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        itemClient.getAvailability(1L, List.of(1L, 2L), from, from.plusDays(1)).block();
+        itemClient.getAvailability(1L, List.of(1L, 2L), from, from.plusDays(1)).block();
+        itemClient.getAvailability(1L, 1L, from, from.plusDays(1)).block();
+        itemClient.getAvailability(1L, 1L, from, from.plusDays(1)).block();
+        Assertions.assertEquals(2, server.calls("GET /items/availability"));
+        Assertions.assertEquals(2, server.calls("GET /items/1/availability"));
+    }
+}
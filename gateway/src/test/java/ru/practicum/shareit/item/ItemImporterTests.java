@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.client.StubExchange;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ItemImporterTests {
+    private static final String IMPORT = "POST /items/import";
+
+    private final StubExchange server = new StubExchange();
+    private final ItemClient itemClient = new ItemClient(StubExchange.SERVER_URL, server.builder(),
+            server.responseCache(), server.requestCoalescer(), server.serverCallGuard());
+
+    @Test
+    void importCompletesTest() {
+        server.respond(IMPORT, HttpStatus.OK, "{\"imported\":3,\"failed\":0,\"errors\":[]}");
+        ResponseEntity<Object> response = importer(Duration.ofMinutes(1)).importItems(1L, items(3)).block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        ItemImportResultDto result = (ItemImportResultDto) response.getBody();
+        Assertions.assertTrue(result.isCompleted());
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(0, result.getFailed());
+        Assertions.assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    void failedChunkKeepsImportedChunksTest() {
+        server.respond(IMPORT, HttpStatus.OK, "{\"imported\":500,\"failed\":0,\"errors\":[]}");
+        server.respond(IMPORT, HttpStatus.INTERNAL_SERVER_ERROR);
+        ResponseEntity<Object> response = importer(Duration.ofMinutes(1)).importItems(1L, items(1200)).block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        ItemImportResultDto result = (ItemImportResultDto) response.getBody();
+        Assertions.assertFalse(result.isCompleted());
+        Assertions.assertEquals(500, result.getImported());
+        Assertions.assertEquals(500, result.getFailed());
+        Assertions.assertEquals(2, server.calls(IMPORT));
+        ItemImportErrorDto stopped = result.getErrors().get(result.getErrors().size() - 1);
+        Assertions.assertEquals(1000, stopped.getIndex());
+    }
+
+    @Test
+    void expiredImportDoesNotCallServerTest() {
+        ResponseEntity<Object> response = importer(Duration.ZERO).importItems(1L, items(3)).block();
+        Assertions.assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        Assertions.assertEquals(0, server.calls(IMPORT));
+    }
+
+    @Test
+    void requestTimeoutCoversImportAndLastChunkTest() {
+        Duration lastChunkDeadline = Duration.ofMinutes(1).plus(itemClient.getImportChunkTimeout());
+        Assertions.assertTrue(importer(Duration.ofMinutes(1)).getRequestTimeout().compareTo(lastChunkDeadline) > 0);
+    }
+
+    private ItemImporter importer(Duration timeout) {
+        return new ItemImporter(itemClient, Jackson2ObjectMapperBuilder.json().build(),
+                Validation.buildDefaultValidatorFactory().getValidator(), timeout);
+    }
+
+    private static InputStream items(int count) {
+        return new ByteArrayInputStream(IntStream.range(0, count)
+                .mapToObj(i -> "{\"name\":\"Item " + i + "\",\"description\":\"Imported\",\"available\":true}")
+                .collect(Collectors.joining("\n"))
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
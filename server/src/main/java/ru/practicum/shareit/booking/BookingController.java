@@ -2,11 +2,17 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.exception.*;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingUpdateResult;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.IllegalPagingArgumentException;
 import ru.practicum.shareit.item.exception.AccessViolationException;
@@ -17,14 +23,24 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
     private final ItemService itemService;
     private final UserService userService;
@@ -38,48 +54,56 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable("bookingId") Long bookingId)
-            throws BookingNotFound, ItemNotFoundException, AccessViolationException {
+                                     @PathVariable("bookingId") Long bookingId, WebRequest webRequest)
+            throws BookingNotFound, AccessViolationException {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " bookingId: " + bookingId);
-        if (bookingService.getById(bookingId).getBooker().getId() != userId) {
-            if (itemService.get(bookingService.getById(bookingId).getItem().getId()).getOwner().getId() != userId) {
+        Booking booking = bookingService.getById(bookingId);
+        if (booking.getBooker().getId() != userId) {
+            if (booking.getItem().getOwner().getId() != userId) {
                 throw new AccessViolationException("Only owner or booker can access booking");
             }
         }
-        return BookingMapper.toBookingDto(bookingService.getById(bookingId));
+        String version = booking.getId() + "|" + booking.getStatus() + "|" + booking.getStart() + "|"
+                + booking.getEnd() + "|" + booking.getItem().getId() + "|" + booking.getItem().getName();
+        if (webRequest.checkNotModified(DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)))) {
+            return null;
+        }
+        return BookingMapper.toBookingDto(booking);
     }
 
     @GetMapping
     public List<BookingDto> getListOfUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                   @RequestParam(defaultValue = "ALL") BookingState state,
                                                   @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "20") int size)
+                                                  @RequestParam(defaultValue = "20") int size,
+                                                  @RequestParam(required = false) String cursor,
+                                                  HttpServletResponse response)
             throws UserNotFoundException, IllegalPagingArgumentException {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " state: " + state + " from:" + from +
-                " size: " + size);
+                " size: " + size + " cursor: " + cursor);
         if (from < 0 || size < 1) {
             throw new IllegalPagingArgumentException("Illegal argument");
         }
         userService.get(userId);
+        if (cursor != null) {
+            return withNextCursor(response, size,
+                    bookingService.getAllByBookerIdBeforeCursor(userId, state, BookingCursor.decode(cursor), size));
+        }
         switch (state) {
             case ALL:
-                return bookingService.getAllByBookerId(userId, from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByBookerId(userId, from, size));
             case FUTURE:
-                return bookingService.getAllByBookerIdFutureStart(userId, from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByBookerIdFutureStart(userId, from, size));
             case PAST:
-                return bookingService.getAllByBookerIdPastEnd(userId, from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByBookerIdPastEnd(userId, from, size));
             case CURRENT:
-                return bookingService.getAllByBookerIdCurrent(userId, from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByBookerIdCurrent(userId, from, size));
             case WAITING:
-                return bookingService.getAllByBookerIdAndStatus(userId, BookingStatus.WAITING, from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size,
+                        bookingService.getAllByBookerIdAndStatus(userId, BookingStatus.WAITING, from, size));
             case REJECTED:
-                return bookingService.getAllByBookerIdAndStatus(userId, BookingStatus.REJECTED, from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size,
+                        bookingService.getAllByBookerIdAndStatus(userId, BookingStatus.REJECTED, from, size));
         }
         return new ArrayList<>();
     }
@@ -88,38 +112,35 @@ public class BookingController {
     List<BookingDto> getListOfOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
                                             @RequestParam(defaultValue = "ALL") BookingState state,
                                             @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "20") int size)
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(required = false) String cursor,
+                                            HttpServletResponse response)
             throws UserNotFoundException, IllegalPagingArgumentException {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + ownerId + " state: " + state + " from:" + from +
-                " size: " + size);
+                " size: " + size + " cursor: " + cursor);
         if (from < 0 || size < 1) {
             throw new IllegalPagingArgumentException("Illegal argument");
         }
+        userService.get(ownerId);
+        if (cursor != null) {
+            return withNextCursor(response, size,
+                    bookingService.getAllByOwnerIdBeforeCursor(ownerId, state, BookingCursor.decode(cursor), size));
+        }
         switch (state) {
             case ALL:
-                return bookingService.getAllByItemList(itemService.getUserItems(ownerId).stream().map(Item::getId)
-                                .collect(Collectors.toList()), from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByOwnerId(ownerId, from, size));
             case FUTURE:
-                return bookingService.getAllByItemListFutureStart(itemService.getUserItems(ownerId).stream()
-                                .map(Item::getId).collect(Collectors.toList()), from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByOwnerIdFutureStart(ownerId, from, size));
             case PAST:
-                return bookingService.getAllByItemListPastEnd(itemService.getUserItems(ownerId).stream()
-                                .map(Item::getId).collect(Collectors.toList()), from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByOwnerIdPastEnd(ownerId, from, size));
             case CURRENT:
-                return bookingService.getAllByItemListCurrent(itemService.getUserItems(ownerId).stream()
-                                .map(Item::getId).collect(Collectors.toList()), from, size).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size, bookingService.getAllByOwnerIdCurrent(ownerId, from, size));
             case WAITING:
-                return bookingService.getAllByItemListAndStatus(itemService.getUserItems(ownerId).stream()
-                                .map(Item::getId).collect(Collectors.toList()), BookingStatus.WAITING, from, size)
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size,
+                        bookingService.getAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, from, size));
             case REJECTED:
-                return bookingService.getAllByItemListAndStatus(itemService.getUserItems(ownerId).stream()
-                                .map(Item::getId).collect(Collectors.toList()), BookingStatus.REJECTED, from, size)
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return withNextCursor(response, size,
+                        bookingService.getAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, from, size));
         }
         return new ArrayList<>();
     }
@@ -127,7 +148,8 @@ public class BookingController {
     @PostMapping
     public BookingDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
                              @RequestBody BookingShortDto bookingShortDto)
-            throws ItemNotFoundException, UserNotFoundException, BookingItemUnavailable, BookingAccessException {
+            throws ItemNotFoundException, UserNotFoundException, BookingItemUnavailable, BookingAccessException,
+            BookingOverlapException {
         log.info(this.getClass().getSimpleName() + ": POST: userId: " + userId + " booking: " + bookingShortDto);
         bookingShortDto.setStatus(BookingStatus.WAITING);
         Item item = itemService.get(bookingShortDto.getItemId());
@@ -135,7 +157,7 @@ public class BookingController {
         if (!item.getAvailable()) {
             throw new BookingItemUnavailable("Item: " + item.getId() + " is unavailable");
         }
-        if (user.equals(item.getOwner())) {
+        if (user.getId() == item.getOwner().getId()) {
             throw new BookingAccessException("User can't book own item");
         }
         return BookingMapper.toBookingDto(bookingService.create(BookingMapper.toBooking(bookingShortDto, item, user)));
@@ -144,25 +166,87 @@ public class BookingController {
     @PatchMapping("/{bookingId}")
     public BookingDto update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("bookingId") Long bookingId,
                              @RequestParam boolean approved)
-            throws ItemNotFoundException, AccessViolationException, BookingNotFound,
-            BookingStatusException, BookingAccessException {
+            throws AccessViolationException, BookingNotFound, BookingStatusException, BookingOverlapException {
         log.info(this.getClass()
                 .getSimpleName() + ": PATCH: userId: " + userId + " bookingId: " + bookingId + " approved: "
                 + approved);
-        if (itemService.get(bookingService.getById(bookingId).getItem().getId()).getOwner().getId() != userId) {
-            throw new AccessViolationException("Only owner can can control booking");
-        }
-        Booking booking = bookingService.getById(bookingId);
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new BookingStatusException("Status of booking " + booking.getId() + " is not WAITING");
+        return BookingMapper.toBookingDto(bookingService.updateStatus(bookingId, userId,
+                approved ? BookingStatus.APPROVED : BookingStatus.REJECTED));
+    }
+
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestBody List<BookingShortDto> bookingShortDtos)
+            throws UserNotFoundException {
+        log.info(this.getClass().getSimpleName() + ": POST: userId: " + userId + " batch: " + bookingShortDtos.size());
+        User user = userService.get(userId);
+        Map<Long, Item> items = itemService.getByIds(bookingShortDtos.stream()
+                .map(BookingShortDto::getItemId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (BookingShortDto bookingShortDto : bookingShortDtos) {
+            Item item = items.get(bookingShortDto.getItemId());
+            if (item == null) {
+                results.add(new BookingBatchResultDto(null, "Item " + bookingShortDto.getItemId() + " not found"));
+            } else if (!item.getAvailable()) {
+                results.add(new BookingBatchResultDto(null, "Item: " + item.getId() + " is unavailable"));
+            } else if (user.getId() == item.getOwner().getId()) {
+                results.add(new BookingBatchResultDto(null, "User can't book own item"));
+            } else {
+                bookingShortDto.setStatus(BookingStatus.WAITING);
+                bookings.add(BookingMapper.toBooking(bookingShortDto, item, user));
+                results.add(null);
+            }
         }
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        Iterator<Booking> requestedBookings = bookings.iterator();
+        Iterator<Booking> createdBookings = bookingService.createAll(bookings).iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Booking requestedBooking = requestedBookings.next();
+                Booking createdBooking = createdBookings.next();
+                results.set(i, createdBooking == null
+                        ? new BookingBatchResultDto(null, "Item: " + requestedBooking.getItem().getId()
+                        + " is already booked from " + requestedBooking.getStart() + " to " + requestedBooking.getEnd())
+                        : new BookingBatchResultDto(BookingMapper.toBookingDto(createdBooking), null));
+            }
         }
-        return BookingMapper.toBookingDto(bookingService.update(booking));
+        return results;
     }
 
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestBody List<BookingApprovalDto> approvals) {
+        log.info(this.getClass().getSimpleName() + ": PATCH: userId: " + userId + " batch: " + approvals.size());
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        for (BookingApprovalDto approval : approvals) {
+            if (approval.getBookingId() != null) {
+                statuses.putIfAbsent(approval.getBookingId(),
+                        approval.isApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            }
+        }
+        Map<Long, BookingUpdateResult> updated = bookingService.updateAll(userId, statuses);
+        Set<Long> reported = new HashSet<>();
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        for (BookingApprovalDto approval : approvals) {
+            if (approval.getBookingId() == null) {
+                results.add(new BookingBatchResultDto(null, "Booking: null not found"));
+            } else if (!reported.add(approval.getBookingId())) {
+                results.add(new BookingBatchResultDto(null, "Booking: " + approval.getBookingId()
+                        + " is repeated in batch"));
+            } else {
+                BookingUpdateResult result = updated.get(approval.getBookingId());
+                results.add(result.getError() == null
+                        ? new BookingBatchResultDto(BookingMapper.toBookingDto(result.getBooking()), null)
+                        : new BookingBatchResultDto(null, result.getError()));
+            }
+        }
+        return results;
+    }
 
+    private List<BookingDto> withNextCursor(HttpServletResponse response, int size, List<BookingView> bookings) {
+        if (bookings.size() == size) {
+            response.setHeader(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(size - 1)).encode());
+        }
+        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    }
 }
@@ -47,4 +47,11 @@ public class BookingExceptionController {
         log.info("Exception {} with message: {}", e.getClass(), e.getMessage());
         return Map.of("error", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleBookingOverlapException(final BookingOverlapException e) {
+        log.info("Exception {} with message: {}", e.getClass(), e.getMessage());
+        return Map.of("error", e.getMessage());
+    }
 }
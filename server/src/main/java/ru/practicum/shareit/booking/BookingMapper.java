@@ -1,17 +1,26 @@
 package ru.practicum.shareit.booking;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.availability.ScheduledBooking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 @UtilityClass
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
-        return new BookingDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getItem(),
-                booking.getBooker(), booking.getStatus());
+        return new BookingDto(booking.getId(), booking.getStart(), booking.getEnd(),
+                new BookingDto.Item(booking.getItem().getId(), booking.getItem().getName()),
+                new BookingDto.Booker(booking.getBooker().getId()), booking.getStatus());
+    }
+
+    public static BookingDto toBookingDto(BookingView booking) {
+        return new BookingDto(booking.getId(), booking.getStart(), booking.getEnd(),
+                new BookingDto.Item(booking.getItemId(), booking.getItemName()),
+                new BookingDto.Booker(booking.getBookerId()), booking.getStatus());
     }
 
     public static Booking toBooking(BookingShortDto bookingShortDto, Item item, User booker) {
@@ -23,4 +32,9 @@ public class BookingMapper {
         return new BookingShortDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getItem().getId(),
                 booking.getBooker().getId(), booking.getStatus());
     }
+
+    public static BookingShortDto toBookingShortDto(ScheduledBooking booking, long itemId) {
+        return new BookingShortDto(booking.getId(), booking.getStart(), booking.getEnd(), itemId, null,
+                booking.getStatus());
+    }
 }
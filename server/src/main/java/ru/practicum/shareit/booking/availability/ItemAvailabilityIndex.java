@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class ItemAvailabilityIndex {
+    private static final List<BookingStatus> FREEING_STATUSES = List.of(BookingStatus.REJECTED,
+            BookingStatus.CANCELED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Cache<Long, ItemSchedule> schedules;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository, ItemRepository itemRepository,
+                                 @Value("${shareit.availability.max-items:100000}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.schedules = Caffeine.newBuilder().maximumSize(maxItems).build();
+    }
+
+    public ItemSchedule get(long itemId) {
+        return schedules.get(itemId, id -> ItemSchedule.of(bookingRepository.findScheduledBookings(id,
+                FREEING_STATUSES)));
+    }
+
+    public Map<Long, ItemSchedule> getAll(Collection<Long> itemIds) {
+        Map<Long, ItemSchedule> itemSchedules = new LinkedHashMap<>();
+        if (itemIds.isEmpty()) {
+            return itemSchedules;
+        }
+        Set<Long> existingIds = new HashSet<>(itemRepository.findIdsByIdIn(itemIds));
+        for (Long itemId : itemIds) {
+            if (existingIds.contains(itemId)) {
+                itemSchedules.put(itemId, get(itemId));
+            }
+        }
+        return itemSchedules;
+    }
+
+    public void clear() {
+        afterCommit(schedules::invalidateAll);
+    }
+
+    public void update(Booking booking) {
+        update(booking.getItem().getId(), ScheduledBooking.of(booking));
+    }
+
+    public void update(long itemId, ScheduledBooking scheduledBooking) {
+        afterCommit(() -> schedules.asMap().compute(itemId,
+                (id, schedule) -> schedule == null ? null : schedule.with(scheduledBooking)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public final class ItemSchedule {
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final BookingStatus[] statuses;
+
+    private ItemSchedule(long[] ids, long[] starts, long[] ends, BookingStatus[] statuses) {
+        int[] order = IntStream.range(0, ids.length).boxed()
+                .sorted(Comparator.<Integer>comparingLong(i -> starts[i]).thenComparingLong(i -> ids[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.ids = new long[order.length];
+        this.starts = new long[order.length];
+        this.ends = new long[order.length];
+        this.maxEnds = new long[order.length];
+        this.statuses = new BookingStatus[order.length];
+        for (int i = 0; i < order.length; i++) {
+            this.ids[i] = ids[order[i]];
+            this.starts[i] = starts[order[i]];
+            this.ends[i] = ends[order[i]];
+            this.statuses[i] = statuses[order[i]];
+            this.maxEnds[i] = i == 0 ? this.ends[i] : Math.max(this.maxEnds[i - 1], this.ends[i]);
+        }
+    }
+
+    public static ItemSchedule of(List<ScheduledBooking> bookings) {
+        long[] ids = new long[bookings.size()];
+        long[] starts = new long[bookings.size()];
+        long[] ends = new long[bookings.size()];
+        BookingStatus[] statuses = new BookingStatus[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            ScheduledBooking booking = bookings.get(i);
+            ids[i] = booking.getId();
+            starts[i] = toMillis(booking.getStart());
+            ends[i] = toMillis(booking.getEnd());
+            statuses[i] = booking.getStatus();
+        }
+        return new ItemSchedule(ids, starts, ends, statuses);
+    }
+
+    public static boolean occupies(BookingStatus status) {
+        return status == BookingStatus.WAITING || status == BookingStatus.APPROVED;
+    }
+
+    public ItemSchedule with(ScheduledBooking booking) {
+        int kept = 0;
+        int size = ids.length + 1;
+        long[] newIds = new long[size];
+        long[] newStarts = new long[size];
+        long[] newEnds = new long[size];
+        BookingStatus[] newStatuses = new BookingStatus[size];
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != booking.getId()) {
+                newIds[kept] = ids[i];
+                newStarts[kept] = starts[i];
+                newEnds[kept] = ends[i];
+                newStatuses[kept] = statuses[i];
+                kept++;
+            }
+        }
+        if (occupies(booking.getStatus())) {
+            newIds[kept] = booking.getId();
+            newStarts[kept] = toMillis(booking.getStart());
+            newEnds[kept] = toMillis(booking.getEnd());
+            newStatuses[kept] = booking.getStatus();
+            kept++;
+        }
+        return new ItemSchedule(Arrays.copyOf(newIds, kept), Arrays.copyOf(newStarts, kept),
+                Arrays.copyOf(newEnds, kept), Arrays.copyOf(newStatuses, kept));
+    }
+
+    public boolean isFree(LocalDateTime from, LocalDateTime to) {
+        int candidates = countStartingBefore(toMillis(to));
+        return candidates == 0 || maxEnds[candidates - 1] <= toMillis(from);
+    }
+
+    public List<ScheduledBooking> overlapping(LocalDateTime from, LocalDateTime to) {
+        long fromMillis = toMillis(from);
+        int candidates = countStartingBefore(toMillis(to));
+        List<ScheduledBooking> bookings = new ArrayList<>();
+        for (int i = firstEndingAfter(fromMillis, candidates); i < candidates; i++) {
+            if (ends[i] > fromMillis) {
+                bookings.add(new ScheduledBooking(ids[i], toDateTime(starts[i]), toDateTime(ends[i]), statuses[i]));
+            }
+        }
+        return bookings;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private int countStartingBefore(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstEndingAfter(long time, int limit) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ScheduledBooking {
+    private final long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+
+    public static ScheduledBooking of(Booking booking) {
+        return new ScheduledBooking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    public static ScheduledBooking of(BookingView booking) {
+        return new ScheduledBooking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
@@ -3,8 +3,6 @@ package ru.practicum.shareit.booking.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -15,6 +13,19 @@ public class BookingDto {
     private LocalDateTime start;
     private LocalDateTime end;
     private Item item;
-    private User booker;
+    private Booker booker;
     private BookingStatus status;
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private long id;
+        private String name;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Booker {
+        private long id;
+    }
 }
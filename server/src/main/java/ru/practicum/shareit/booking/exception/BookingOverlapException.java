@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exception;
+
+public class BookingOverlapException extends Exception {
+    public BookingOverlapException(String message) {
+        super(message);
+    }
+}
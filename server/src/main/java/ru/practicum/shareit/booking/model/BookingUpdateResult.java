@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingUpdateResult {
+    private final BookingView booking;
+    private final String error;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingView {
+    private final long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long itemId;
+    private final String itemName;
+    private final long bookerId;
+    private final BookingStatus status;
+}
@@ -1,37 +1,93 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.ScheduledBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> findBookingsByBooker_Id(Long bookerId, Pageable pageable);
+    String BOOKING_VIEW = "select new ru.practicum.shareit.booking.model.BookingView(b.id, b.start, b.end, i.id, " +
+            "i.name, b.booker.id, b.status) from Booking b join b.item i ";
 
-    Page<Booking> findBookingsByBooker_IdAndStartAfter(Long bookerId, LocalDateTime now, Pageable pageable);
+    String BEFORE_CURSOR = " and (b.start < ?2 or (b.start = ?2 and b.id < ?3))";
 
-    Page<Booking> findBookingsByBooker_IdAndEndBefore(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1")
+    Slice<BookingView> findBookerBookings(Long bookerId, Pageable pageable);
 
-    Page<Booking> findBookingsByBooker_IdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime nowStart,
-                                                                   LocalDateTime nowEnd, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start > ?2")
+    Slice<BookingView> findBookerFutureBookings(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findBookingsByBooker_IdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.end < ?2")
+    Slice<BookingView> findBookerPastBookings(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findBookingsByItem_IdIn(Collection<Long> items, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?2")
+    Slice<BookingView> findBookerCurrentBookings(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findBookingsByItem_IdInAndStartAfter(Collection<Long> items, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.status = ?2")
+    Slice<BookingView> findBookerBookingsByStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
-    Page<Booking> findBookingsByItem_IdInAndEndBefore(Collection<Long> items, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1")
+    Slice<BookingView> findOwnerBookings(Long ownerId, Pageable pageable);
 
-    Page<Booking> findBookingsByItem_IdInAndStartBeforeAndEndAfter(Collection<Long> items, LocalDateTime nowStart,
-                                                                   LocalDateTime nowEnd, Pageable pageable);
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start > ?2")
+    Slice<BookingView> findOwnerFutureBookings(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findBookingsByItem_IdInAndStatus(Collection<Long> items, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.end < ?2")
+    Slice<BookingView> findOwnerPastBookings(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start < ?2 and b.end > ?2")
+    Slice<BookingView> findOwnerCurrentBookings(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.status = ?2")
+    Slice<BookingView> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1" + BEFORE_CURSOR)
+    Slice<BookingView> findBookerBookingsBeforeCursor(Long bookerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start > ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findBookerFutureBookingsBeforeCursor(Long bookerId, LocalDateTime start, Long id,
+                                                            LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.end < ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findBookerPastBookingsBeforeCursor(Long bookerId, LocalDateTime start, Long id,
+                                                          LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.start < ?4 and b.end > ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findBookerCurrentBookingsBeforeCursor(Long bookerId, LocalDateTime start, Long id,
+                                                             LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = ?1 and b.status = ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findBookerBookingsByStatusBeforeCursor(Long bookerId, LocalDateTime start, Long id,
+                                                              BookingStatus status, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1" + BEFORE_CURSOR)
+    Slice<BookingView> findOwnerBookingsBeforeCursor(Long ownerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start > ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findOwnerFutureBookingsBeforeCursor(Long ownerId, LocalDateTime start, Long id,
+                                                           LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.end < ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findOwnerPastBookingsBeforeCursor(Long ownerId, LocalDateTime start, Long id,
+                                                         LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.start < ?4 and b.end > ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findOwnerCurrentBookingsBeforeCursor(Long ownerId, LocalDateTime start, Long id,
+                                                            LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = ?1 and b.status = ?4" + BEFORE_CURSOR)
+    Slice<BookingView> findOwnerBookingsByStatusBeforeCursor(Long ownerId, LocalDateTime start, Long id,
+                                                             BookingStatus status, Pageable pageable);
 
     Booking getDistinctTopByItem_IdAndStartBeforeAndStatusNotOrderByEndDesc(Long itemId, LocalDateTime now,
                                                                             BookingStatus status);
@@ -41,4 +97,49 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     boolean existsBookingByBooker_IdAndItem_IdAndStatusAndStartBefore(Long bookerId, Long itemId, BookingStatus status,
                                                                       LocalDateTime now);
+
+    boolean existsBookingByItem_IdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, BookingStatus status,
+                                                                             LocalDateTime end, LocalDateTime start,
+                                                                             Long id);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in ?1 and b.start < ?2 and b.status <> ?3 " +
+            "and b.end = (select max(l.end) from Booking l " +
+            "where l.item.id = b.item.id and l.start < ?2 and l.status <> ?3)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, BookingStatus status);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in ?1 and b.start > ?2 and b.status <> ?3 " +
+            "and b.start = (select min(n.start) from Booking n " +
+            "where n.item.id = b.item.id and n.start > ?2 and n.status <> ?3)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, BookingStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 where b.id = ?1 and b.status = ?4 " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatus(Long id, Long ownerId, BookingStatus status, BookingStatus expectedStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?2 where b.id in ?1")
+    int updateStatuses(Collection<Long> ids, BookingStatus status);
+
+    @Query(value = "select id from bookings where id in (?1) order by id for update", nativeQuery = true)
+    List<Number> lockBookingsByIdIn(Collection<Long> ids);
+
+    @Query(BOOKING_VIEW + "where b.id = ?1")
+    BookingView findBookingViewById(Long id);
+
+    @Query("select b.id from Booking b where b.id in ?1 and b.item.owner.id = ?2")
+    List<Long> findIdsByIdInAndOwnerId(Collection<Long> ids, Long ownerId);
+
+    @Query(BOOKING_VIEW + "where b.id in ?1")
+    List<BookingView> findBookingViewsByIdIn(Collection<Long> ids);
+
+    @Query(BOOKING_VIEW + "where i.id in ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<BookingView> findBookingViewsByItemIdsAndStatusBetween(Collection<Long> itemIds, BookingStatus status,
+                                                                LocalDateTime from, LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.availability.ScheduledBooking(b.id, b.start, b.end, b.status) " +
+            "from Booking b where b.item.id = ?1 and b.status not in ?2 and b.start is not null and b.end is not null")
+    List<ScheduledBooking> findScheduledBookings(long itemId, Collection<BookingStatus> excludedStatuses);
 }
@@ -1,39 +1,61 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.exception.BookingNotFound;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.exception.BookingStatusException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingUpdateResult;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.exception.AccessViolationException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     Booking getById(Long id) throws BookingNotFound;
 
-    List<Booking> getAllByBookerId(Long bookerId, int from, int size);
+    List<BookingView> getAllByBookerId(Long bookerId, int from, int size);
 
-    List<Booking> getAllByBookerIdFutureStart(Long bookerId, int from, int size);
+    List<BookingView> getAllByBookerIdFutureStart(Long bookerId, int from, int size);
 
-    List<Booking> getAllByBookerIdPastEnd(Long bookerId, int from, int size);
+    List<BookingView> getAllByBookerIdPastEnd(Long bookerId, int from, int size);
 
-    List<Booking> getAllByBookerIdCurrent(Long bookerId, int from, int size);
+    List<BookingView> getAllByBookerIdCurrent(Long bookerId, int from, int size);
 
-    List<Booking> getAllByBookerIdAndStatus(Long bookerId, BookingStatus status, int from, int size);
+    List<BookingView> getAllByBookerIdAndStatus(Long bookerId, BookingStatus status, int from, int size);
 
-    List<Booking> getAllByItemList(List<Long> items, int from, int size);
+    List<BookingView> getAllByOwnerId(Long ownerId, int from, int size);
 
-    List<Booking> getAllByItemListFutureStart(List<Long> items, int from, int size);
+    List<BookingView> getAllByOwnerIdFutureStart(Long ownerId, int from, int size);
 
-    List<Booking> getAllByItemListPastEnd(List<Long> items, int from, int size);
+    List<BookingView> getAllByOwnerIdPastEnd(Long ownerId, int from, int size);
 
-    List<Booking> getAllByItemListAndStatus(List<Long> items, BookingStatus status, int from, int size);
+    List<BookingView> getAllByOwnerIdAndStatus(Long ownerId, BookingStatus status, int from, int size);
 
-    List<Booking> getAllByItemListCurrent(List<Long> items, int from, int size);
+    List<BookingView> getAllByOwnerIdCurrent(Long ownerId, int from, int size);
 
-    Booking create(Booking booking);
+    List<BookingView> getAllByBookerIdBeforeCursor(Long bookerId, BookingState state, BookingCursor cursor, int size);
 
-    Booking update(Booking booking);
+    List<BookingView> getAllByOwnerIdBeforeCursor(Long ownerId, BookingState state, BookingCursor cursor, int size);
+
+    Booking create(Booking booking) throws BookingOverlapException;
+
+    BookingView updateStatus(Long id, Long ownerId, BookingStatus status)
+            throws BookingNotFound, AccessViolationException, BookingStatusException, BookingOverlapException;
+
+    List<Booking> createAll(List<Booking> bookings);
+
+    Map<Long, BookingUpdateResult> updateAll(Long ownerId, Map<Long, BookingStatus> statuses);
 
     Booking getLastBookingByItem(Long itemId);
 
     Booking getNextBookingByItem(Long itemId);
+
+    Map<Long, Booking> getLastBookingsByItems(Collection<Long> itemIds);
+
+    Map<Long, Booking> getNextBookingsByItems(Collection<Long> itemIds);
 }
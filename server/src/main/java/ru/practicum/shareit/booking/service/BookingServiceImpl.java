@@ -2,24 +2,56 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ScheduledBooking;
 import ru.practicum.shareit.booking.exception.BookingNotFound;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.exception.BookingStatusException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingUpdateResult;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.exception.AccessViolationException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final Sort START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final int ITEM_LOCK_STRIPES = 256;
 
     private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final Lock[] itemLocks = IntStream.range(0, ITEM_LOCK_STRIPES)
+            .mapToObj(i -> new ReentrantLock())
+            .toArray(Lock[]::new);
 
     @Override
     public Booking getById(Long id) throws BookingNotFound {
@@ -27,75 +59,225 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getAllByBookerId(Long bookerId, int from, int size) {
-        return bookingRepository.findBookingsByBooker_Id(bookerId, PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByBookerId(Long bookerId, int from, int size) {
+        return bookingRepository.findBookerBookings(bookerId, PageRequest.of(from > 0 ? from / size : 0, size,
+                START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByBookerIdFutureStart(Long bookerId, int from, int size) {
-        return bookingRepository.findBookingsByBooker_IdAndStartAfter(bookerId, LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByBookerIdFutureStart(Long bookerId, int from, int size) {
+        return bookingRepository.findBookerFutureBookings(bookerId, LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
+                START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByBookerIdPastEnd(Long bookerId, int from, int size) {
-        return bookingRepository.findBookingsByBooker_IdAndEndBefore(bookerId, LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByBookerIdPastEnd(Long bookerId, int from, int size) {
+        return bookingRepository.findBookerPastBookings(bookerId, LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
+                START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByBookerIdCurrent(Long bookerId, int from, int size) {
-        return bookingRepository.findBookingsByBooker_IdAndStartBeforeAndEndAfter(bookerId, LocalDateTime.now(),
-                LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("start")
-                        .descending())).toList();
+    public List<BookingView> getAllByBookerIdCurrent(Long bookerId, int from, int size) {
+        return bookingRepository.findBookerCurrentBookings(bookerId, LocalDateTime.now(),
+                PageRequest.of(from > 0 ? from / size : 0, size, START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByBookerIdAndStatus(Long bookerId, BookingStatus status, int from, int size) {
-        return bookingRepository.findBookingsByBooker_IdAndStatus(bookerId, status,
-                PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByBookerIdAndStatus(Long bookerId, BookingStatus status, int from, int size) {
+        return bookingRepository.findBookerBookingsByStatus(bookerId, status,
+                PageRequest.of(from > 0 ? from / size : 0, size, START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByItemList(List<Long> items, int from, int size) {
-        return bookingRepository.findBookingsByItem_IdIn(items, PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByOwnerId(Long ownerId, int from, int size) {
+        return bookingRepository.findOwnerBookings(ownerId, PageRequest.of(from > 0 ? from / size : 0, size,
+                START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByItemListFutureStart(List<Long> items, int from, int size) {
-        return bookingRepository.findBookingsByItem_IdInAndStartAfter(items, LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByOwnerIdFutureStart(Long ownerId, int from, int size) {
+        return bookingRepository.findOwnerFutureBookings(ownerId, LocalDateTime.now(),
+                PageRequest.of(from > 0 ? from / size : 0, size, START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByItemListPastEnd(List<Long> items, int from, int size) {
-        return bookingRepository.findBookingsByItem_IdInAndEndBefore(items, LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByOwnerIdPastEnd(Long ownerId, int from, int size) {
+        return bookingRepository.findOwnerPastBookings(ownerId, LocalDateTime.now(),
+                PageRequest.of(from > 0 ? from / size : 0, size, START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByItemListAndStatus(List<Long> items, BookingStatus status, int from, int size) {
-        return bookingRepository.findBookingsByItem_IdInAndStatus(items, status, PageRequest.of(from > 0 ? from / size : 0, size,
-                Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByOwnerIdAndStatus(Long ownerId, BookingStatus status, int from, int size) {
+        return bookingRepository.findOwnerBookingsByStatus(ownerId, status,
+                PageRequest.of(from > 0 ? from / size : 0, size, START_DESC)).toList();
     }
 
     @Override
-    public List<Booking> getAllByItemListCurrent(List<Long> items, int from, int size) {
-        return bookingRepository.findBookingsByItem_IdInAndStartBeforeAndEndAfter(items,
-                LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(from > 0 ? from / size : 0, size,
-                        Sort.by("start").descending())).toList();
+    public List<BookingView> getAllByOwnerIdCurrent(Long ownerId, int from, int size) {
+        return bookingRepository.findOwnerCurrentBookings(ownerId, LocalDateTime.now(),
+                PageRequest.of(from > 0 ? from / size : 0, size, START_DESC)).toList();
     }
 
     @Override
-    public Booking create(Booking booking) {
-        return bookingRepository.save(booking);
+    public List<BookingView> getAllByBookerIdBeforeCursor(Long bookerId, BookingState state, BookingCursor cursor,
+                                                      int size) {
+        Pageable pageable = PageRequest.of(0, size, START_DESC);
+        switch (state) {
+            case FUTURE:
+                return bookingRepository.findBookerFutureBookingsBeforeCursor(bookerId, cursor.getStart(),
+                        cursor.getId(), LocalDateTime.now(), pageable).getContent();
+            case PAST:
+                return bookingRepository.findBookerPastBookingsBeforeCursor(bookerId, cursor.getStart(),
+                        cursor.getId(), LocalDateTime.now(), pageable).getContent();
+            case CURRENT:
+                return bookingRepository.findBookerCurrentBookingsBeforeCursor(bookerId, cursor.getStart(),
+                        cursor.getId(), LocalDateTime.now(), pageable).getContent();
+            case WAITING:
+                return bookingRepository.findBookerBookingsByStatusBeforeCursor(bookerId, cursor.getStart(),
+                        cursor.getId(), BookingStatus.WAITING, pageable).getContent();
+            case REJECTED:
+                return bookingRepository.findBookerBookingsByStatusBeforeCursor(bookerId, cursor.getStart(),
+                        cursor.getId(), BookingStatus.REJECTED, pageable).getContent();
+            default:
+                return bookingRepository.findBookerBookingsBeforeCursor(bookerId, cursor.getStart(),
+                        cursor.getId(), pageable).getContent();
+        }
     }
 
     @Override
-    public Booking update(Booking booking) {
-        return bookingRepository.save(booking);
+    public List<BookingView> getAllByOwnerIdBeforeCursor(Long ownerId, BookingState state, BookingCursor cursor,
+                                                     int size) {
+        Pageable pageable = PageRequest.of(0, size, START_DESC);
+        switch (state) {
+            case FUTURE:
+                return bookingRepository.findOwnerFutureBookingsBeforeCursor(ownerId, cursor.getStart(),
+                        cursor.getId(), LocalDateTime.now(), pageable).getContent();
+            case PAST:
+                return bookingRepository.findOwnerPastBookingsBeforeCursor(ownerId, cursor.getStart(),
+                        cursor.getId(), LocalDateTime.now(), pageable).getContent();
+            case CURRENT:
+                return bookingRepository.findOwnerCurrentBookingsBeforeCursor(ownerId, cursor.getStart(),
+                        cursor.getId(), LocalDateTime.now(), pageable).getContent();
+            case WAITING:
+                return bookingRepository.findOwnerBookingsByStatusBeforeCursor(ownerId, cursor.getStart(),
+                        cursor.getId(), BookingStatus.WAITING, pageable).getContent();
+            case REJECTED:
+                return bookingRepository.findOwnerBookingsByStatusBeforeCursor(ownerId, cursor.getStart(),
+                        cursor.getId(), BookingStatus.REJECTED, pageable).getContent();
+            default:
+                return bookingRepository.findOwnerBookingsBeforeCursor(ownerId, cursor.getStart(),
+                        cursor.getId(), pageable).getContent();
+        }
+    }
+
+    @Override
+    public Booking create(Booking booking) throws BookingOverlapException {
+        lockItemsUntilCompletion(List.of(booking.getItem().getId()));
+        checkNoApprovedOverlap(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        itemAvailabilityIndex.update(savedBooking);
+        return savedBooking;
+    }
+
+    @Override
+    @Transactional(rollbackFor = BookingOverlapException.class)
+    public BookingView updateStatus(Long id, Long ownerId, BookingStatus status)
+            throws BookingNotFound, AccessViolationException, BookingStatusException, BookingOverlapException {
+        if (bookingRepository.updateStatus(id, ownerId, status, BookingStatus.WAITING) == 0) {
+            if (getById(id).getItem().getOwner().getId() != ownerId) {
+                throw new AccessViolationException("Only owner can control booking");
+            }
+            throw new BookingStatusException("Status of booking " + id + " is not WAITING");
+        }
+        BookingView booking = bookingRepository.findBookingViewById(id);
+        lockItemsUntilCompletion(List.of(booking.getItemId()));
+        checkNoApprovedOverlap(booking.getItemId(), id, booking.getStatus(), booking.getStart(), booking.getEnd());
+        itemAvailabilityIndex.update(booking.getItemId(), ScheduledBooking.of(booking));
+        return booking;
+    }
+
+    @Override
+    public List<Booking> createAll(List<Booking> bookings) {
+        lockItemsUntilCompletion(itemIds(bookings));
+        Map<Long, List<ScheduledBooking>> approvedBookings = findApprovedBookingsByItem(bookings);
+        boolean[] overlapping = new boolean[bookings.size()];
+        List<Booking> accepted = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            List<ScheduledBooking> approved = approvedBookings.computeIfAbsent(booking.getItem().getId(),
+                    itemId -> new ArrayList<>());
+            overlapping[i] = overlapsAny(booking, approved);
+            if (!overlapping[i]) {
+                accepted.add(booking);
+                if (booking.getStatus() == BookingStatus.APPROVED) {
+                    approved.add(ScheduledBooking.of(booking));
+                }
+            }
+        }
+        Iterator<Booking> savedBookings = bookingRepository.saveAll(accepted).iterator();
+        List<Booking> results = new ArrayList<>(bookings.size());
+        for (boolean overlaps : overlapping) {
+            if (overlaps) {
+                results.add(null);
+            } else {
+                Booking savedBooking = savedBookings.next();
+                itemAvailabilityIndex.update(savedBooking);
+                results.add(savedBooking);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Map<Long, BookingUpdateResult> updateAll(Long ownerId, Map<Long, BookingStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return Map.of();
+        }
+        bookingRepository.lockBookingsByIdIn(statuses.keySet());
+        Map<Long, BookingView> bookings = bookingRepository.findBookingViewsByIdIn(statuses.keySet()).stream()
+                .collect(Collectors.toMap(BookingView::getId, Function.identity()));
+        Set<Long> ownedIds = new HashSet<>(bookingRepository.findIdsByIdInAndOwnerId(statuses.keySet(), ownerId));
+        List<BookingView> ownedBookings = bookings.values().stream()
+                .filter(booking -> ownedIds.contains(booking.getId()))
+                .collect(Collectors.toList());
+        lockItemsUntilCompletion(ownedBookings.stream().map(BookingView::getItemId).collect(Collectors.toList()));
+        Map<Long, List<ScheduledBooking>> approvedBookings = findApprovedBookingViewsByItem(ownedBookings.stream()
+                .filter(booking -> statuses.get(booking.getId()) == BookingStatus.APPROVED)
+                .collect(Collectors.toList()));
+        Map<Long, BookingUpdateResult> results = new HashMap<>();
+        Map<BookingStatus, List<Long>> accepted = new EnumMap<>(BookingStatus.class);
+        for (Map.Entry<Long, BookingStatus> status : statuses.entrySet()) {
+            BookingView booking = bookings.get(status.getKey());
+            String error = null;
+            if (booking == null) {
+                error = "Booking: " + status.getKey() + " not found";
+            } else if (!ownedIds.contains(booking.getId())) {
+                error = "Only owner can control booking";
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                error = "Status of booking " + booking.getId() + " is not WAITING";
+            } else if (status.getValue() == BookingStatus.APPROVED) {
+                List<ScheduledBooking> approved = approvedBookings.computeIfAbsent(booking.getItemId(),
+                        itemId -> new ArrayList<>());
+                if (overlapsAny(booking.getId(), booking.getStart(), booking.getEnd(), approved)) {
+                    error = "Item: " + booking.getItemId() + " is already booked from " + booking.getStart()
+                            + " to " + booking.getEnd();
+                } else {
+                    approved.add(new ScheduledBooking(booking.getId(), booking.getStart(), booking.getEnd(),
+                            BookingStatus.APPROVED));
+                }
+            }
+            if (error != null) {
+                results.put(status.getKey(), new BookingUpdateResult(null, error));
+                continue;
+            }
+            BookingView updatedBooking = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(),
+                    booking.getItemId(), booking.getItemName(), booking.getBookerId(), status.getValue());
+            accepted.computeIfAbsent(status.getValue(), s -> new ArrayList<>()).add(booking.getId());
+            itemAvailabilityIndex.update(updatedBooking.getItemId(), ScheduledBooking.of(updatedBooking));
+            results.put(status.getKey(), new BookingUpdateResult(updatedBooking, null));
+        }
+        accepted.forEach((status, ids) -> bookingRepository.updateStatuses(ids, status));
+        return results;
     }
 
     @Override
@@ -109,4 +291,111 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.getDistinctTopByItem_IdAndStartAfterAndStatusNotOrderByStartAsc(itemId,
                 LocalDateTime.now(), BookingStatus.REJECTED);
     }
+
+    @Override
+    public Map<Long, Booking> getLastBookingsByItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return groupByItem(bookingRepository.findLastBookingsByItemIds(itemIds, LocalDateTime.now(),
+                BookingStatus.REJECTED));
+    }
+
+    @Override
+    public Map<Long, Booking> getNextBookingsByItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return groupByItem(bookingRepository.findNextBookingsByItemIds(itemIds, LocalDateTime.now(),
+                BookingStatus.REJECTED));
+    }
+
+    private Map<Long, List<ScheduledBooking>> findApprovedBookingsByItem(List<Booking> bookings) {
+        List<Booking> dated = bookings.stream()
+                .filter(booking -> booking.getStart() != null && booking.getEnd() != null)
+                .collect(Collectors.toList());
+        if (dated.isEmpty()) {
+            return new HashMap<>();
+        }
+        return findApprovedBookingsByItem(itemIds(dated),
+                dated.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow(),
+                dated.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow());
+    }
+
+    private Map<Long, List<ScheduledBooking>> findApprovedBookingViewsByItem(List<BookingView> bookings) {
+        if (bookings.isEmpty()) {
+            return new HashMap<>();
+        }
+        return findApprovedBookingsByItem(bookings.stream().map(BookingView::getItemId).collect(Collectors.toList()),
+                bookings.stream().map(BookingView::getStart).min(Comparator.naturalOrder()).orElseThrow(),
+                bookings.stream().map(BookingView::getEnd).max(Comparator.naturalOrder()).orElseThrow());
+    }
+
+    private Map<Long, List<ScheduledBooking>> findApprovedBookingsByItem(Collection<Long> itemIds,
+                                                                         LocalDateTime from, LocalDateTime to) {
+        return bookingRepository.findBookingViewsByItemIdsAndStatusBetween(itemIds, BookingStatus.APPROVED, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookingView::getItemId, HashMap::new,
+                        Collectors.mapping(ScheduledBooking::of, Collectors.toList())));
+    }
+
+    private static boolean overlapsAny(Booking booking, List<ScheduledBooking> approved) {
+        if (booking.getStatus() == BookingStatus.REJECTED) {
+            return false;
+        }
+        return overlapsAny(booking.getId(), booking.getStart(), booking.getEnd(), approved);
+    }
+
+    private static boolean overlapsAny(long id, LocalDateTime start, LocalDateTime end,
+                                       List<ScheduledBooking> approved) {
+        if (start == null || end == null) {
+            return false;
+        }
+        return approved.stream().anyMatch(other -> other.getId() != id
+                && other.getStart().isBefore(end) && other.getEnd().isAfter(start));
+    }
+
+    private void checkNoApprovedOverlap(Booking booking) throws BookingOverlapException {
+        checkNoApprovedOverlap(booking.getItem().getId(), booking.getId(), booking.getStatus(), booking.getStart(),
+                booking.getEnd());
+    }
+
+    private void checkNoApprovedOverlap(long itemId, long id, BookingStatus status, LocalDateTime start,
+                                        LocalDateTime end) throws BookingOverlapException {
+        if (status == BookingStatus.REJECTED) {
+            return;
+        }
+        if (bookingRepository.existsBookingByItem_IdAndStatusAndStartBeforeAndEndAfterAndIdNot(itemId,
+                BookingStatus.APPROVED, end, start, id)) {
+            throw new BookingOverlapException("Item: " + itemId + " is already booked from " + start + " to " + end);
+        }
+    }
+
+    private static List<Long> itemIds(List<Booking> bookings) {
+        return bookings.stream().map(booking -> booking.getItem().getId()).collect(Collectors.toList());
+    }
+
+    private void lockItemsUntilCompletion(List<Long> itemIds) {
+        int[] stripes = itemIds.stream()
+                .mapToInt(itemId -> Math.floorMod(Long.hashCode(itemId), ITEM_LOCK_STRIPES))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripe : stripes) {
+            itemLocks[stripe].lock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = stripes.length - 1; i >= 0; i--) {
+                    itemLocks[stripes[i]].unlock();
+                }
+            }
+        });
+    }
+
+    private Map<Long, Booking> groupByItem(List<Booking> bookings) {
+        return bookings.stream().collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                (first, second) -> first));
+    }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+@RequiredArgsConstructor
+public class SnapshotCache<T> {
+
+    private final Cache cache;
+    private final Class<T> type;
+    private final Function<T, Long> idGetter;
+    private final UnaryOperator<T> copier;
+
+    public T get(Long id) {
+        T snapshot = cache.get(id, type);
+        return snapshot == null ? null : copier.apply(snapshot);
+    }
+
+    public T put(T value) {
+        afterCommit(() -> cache.put(idGetter.apply(value), copier.apply(value)));
+        return value;
+    }
+
+    public void evict(Long id) {
+        afterCommit(() -> cache.evict(id));
+    }
+
+    public void clear() {
+        afterCommit(cache::clear);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
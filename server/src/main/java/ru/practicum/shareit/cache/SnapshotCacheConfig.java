@@ -0,0 +1,31 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+@Configuration
+public class SnapshotCacheConfig {
+
+    @Bean
+    public SnapshotCache<User> userCache(CacheManager cacheManager) {
+        return new SnapshotCache<>(cacheManager.getCache("users"), User.class, User::getId, UserMapper::copyOf);
+    }
+
+    @Bean
+    public SnapshotCache<Item> itemCache(CacheManager cacheManager) {
+        return new SnapshotCache<>(cacheManager.getCache("items"), Item.class, Item::getId, ItemMapper::copyOf);
+    }
+
+    @Bean
+    public SnapshotCache<ItemRequest> itemRequestCache(CacheManager cacheManager) {
+        return new SnapshotCache<>(cacheManager.getCache("requests"), ItemRequest.class, ItemRequest::getId,
+                ItemRequestMapper::copyOf);
+    }
+}
@@ -1,10 +1,16 @@
 package ru.practicum.shareit.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("select c from Comment c join fetch c.author where c.item.id = ?1 order by c.id")
     List<Comment> findCommentsByItem_Id(Long itemId);
+
+    @Query("select c from Comment c join fetch c.author where c.item.id in ?1")
+    List<Comment> findCommentsByItem_IdIn(Collection<Long> itemIds);
 }
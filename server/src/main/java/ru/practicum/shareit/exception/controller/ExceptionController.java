@@ -1,7 +1,12 @@
 package ru.practicum.shareit.exception.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,11 +16,33 @@ import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class ExceptionController {
+    private static final String APPROVED_OVERLAP_CONSTRAINT = "ex_bookings_approved_overlap";
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleIllegalPagingArgumentException(final IllegalPagingArgumentException e) {
         log.info("Exception {} with message: {}", e.getClass(), e.getMessage());
         return Map.of("error", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleObjectOptimisticLockingFailureException(
+            final ObjectOptimisticLockingFailureException e) {
+        log.info("Exception {} with message: {}", e.getClass(), e.getMessage());
+        return Map.of("error", "Entity " + e.getIdentifier() + " was modified concurrently");
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDataIntegrityViolationException(final DataIntegrityViolationException e) {
+        log.info("Exception {} with message: {}", e.getClass(), e.getMessage());
+        if (e.getCause() instanceof ConstraintViolationException && APPROVED_OVERLAP_CONSTRAINT
+                .equals(((ConstraintViolationException) e.getCause()).getConstraintName())) {
+            return Map.of("error", "Item is already booked for the requested period");
+        }
+        return Map.of("error", e.getMessage());
+    }
 }
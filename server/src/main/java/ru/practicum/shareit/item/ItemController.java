@@ -1,81 +1,145 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.TransactionException;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.exception.*;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
-import java.util.Comparator;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
     private final ItemRequestService itemRequestService;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public ItemController(ItemService itemService, UserService userService, BookingService bookingService,
-                          ItemRequestService itemRequestService) {
+                          ItemRequestService itemRequestService, ItemAvailabilityIndex itemAvailabilityIndex,
+                          ObjectMapper objectMapper) {
         this.itemService = itemService;
         this.userService = userService;
         this.bookingService = bookingService;
         this.itemRequestService = itemRequestService;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{id}")
     public ItemWithBookingDto get(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                  @PathVariable("id") Long id) throws ItemNotFoundException {
+                                  @PathVariable("id") Long id, WebRequest webRequest) throws ItemNotFoundException {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " itemId: " + id);
-        ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(itemService.get(id),
-                itemService.getCommentsByItemId(id).stream()
-                        .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
-        if (userId.equals(itemService.get(id).getOwner().getId())) {
-            Booking lastBooking = bookingService.getLastBookingByItem(id);
-            if (lastBooking != null) {
-                itemWithBookingDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking));
-            }
-            Booking nextBooking = bookingService.getNextBookingByItem(id);
-            if (nextBooking != null) {
-                itemWithBookingDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking));
-            }
+        Item item = itemService.get(id);
+        List<Comment> comments = itemService.getCommentsByItemId(id);
+        Booking lastBooking = null;
+        Booking nextBooking = null;
+        if (userId.equals(item.getOwner().getId())) {
+            lastBooking = bookingService.getLastBookingByItem(id);
+            nextBooking = bookingService.getNextBookingByItem(id);
+        }
+        String version = itemVersion(item, comments, lastBooking, nextBooking);
+        if (webRequest.checkNotModified(DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)))) {
+            return null;
+        }
+        ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(item,
+                comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()));
+        if (lastBooking != null) {
+            itemWithBookingDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking));
+        }
+        if (nextBooking != null) {
+            itemWithBookingDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking));
         }
         return itemWithBookingDto;
     }
 
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable("id") Long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) throws ItemNotFoundException {
+        log.info(this.getClass().getSimpleName() + ": GET: availability: itemId: " + id + " from: " + from + " to: "
+                + to);
+        itemService.get(id);
+        return ItemMapper.toItemAvailabilityDto(id, from, to, itemAvailabilityIndex.get(id));
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(@RequestParam List<Long> ids,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime to) {
+        log.info(this.getClass().getSimpleName() + ": GET: availability: itemIds: " + ids + " from: " + from
+                + " to: " + to);
+        return itemAvailabilityIndex.getAll(ids).entrySet().stream()
+                .map(entry -> ItemMapper.toItemAvailabilityDto(entry.getKey(), from, to, entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
     @GetMapping
     public List<ItemWithBookingDto> getUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @RequestParam(defaultValue = "0") int from,
                                                  @RequestParam(defaultValue = "20") int size)
             throws UserNotFoundException {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " from: " + from + " size: " + size);
-        return itemService.getUserItems(userId, from, size).stream().map(item -> {
+        List<Item> items = itemService.getUserItems(userId, from, size);
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, List<Comment>> comments = itemService.getCommentsByItemIds(itemIds);
+        Map<Long, Booking> lastBookings = bookingService.getLastBookingsByItems(itemIds);
+        Map<Long, Booking> nextBookings = bookingService.getNextBookingsByItems(itemIds);
+        return items.stream().map(item -> {
             ItemWithBookingDto itemWithBookingDto = ItemMapper.toItemWithBookingDto(item,
-                    itemService.getCommentsByItemId(item.getId()).stream()
+                    comments.getOrDefault(item.getId(), List.of()).stream()
                             .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
-            Booking lastBooking = bookingService.getLastBookingByItem(item.getId());
+            Booking lastBooking = lastBookings.get(item.getId());
             if (lastBooking != null) {
                 itemWithBookingDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking));
             }
-            Booking nextBooking = bookingService.getNextBookingByItem(item.getId());
+            Booking nextBooking = nextBookings.get(item.getId());
             if (nextBooking != null) {
                 itemWithBookingDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking));
             }
@@ -103,6 +167,37 @@ public class ItemController {
                 itemDto.getRequestId() == null ? null : itemRequestService.getById(itemDto.getRequestId()))));
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") Long userId, InputStream body)
+            throws UserNotFoundException, IOException {
+        log.info(this.getClass().getSimpleName() + ": POST: import: userId: " + userId);
+        User user = userService.get(userId);
+        ItemImportResultDto result = new ItemImportResultDto(0, 0, new ArrayList<>());
+        Map<Long, ItemDto> batch = new LinkedHashMap<>();
+        long index = 0;
+        try (MappingIterator<JsonNode> entries = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (entries.hasNextValue()) {
+                JsonNode entry = entries.nextValue();
+                try {
+                    batch.put(index, objectMapper.treeToValue(entry, ItemDto.class));
+                } catch (JsonProcessingException e) {
+                    reportImportFailure(result, index, "Entry is not an item: " + e.getOriginalMessage());
+                }
+                index++;
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    importBatch(user, batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            reportImportFailure(result, index, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        importBatch(user, batch, result);
+        log.info(this.getClass().getSimpleName() + ": POST: import: userId: " + userId + " imported: "
+                + result.getImported() + " failed: " + result.getFailed());
+        return result;
+    }
+
     @PatchMapping("/{id}")
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable("id") Long id,
                           @RequestBody ItemDto itemDto)
@@ -134,4 +229,60 @@ public class ItemController {
         comment.setText(commentDto.getText());
         return CommentMapper.toCommentDto(itemService.addComment(comment));
     }
+
+    private static String itemVersion(Item item, List<Comment> comments, Booking lastBooking, Booking nextBooking) {
+        StringBuilder version = new StringBuilder()
+                .append(item.getId()).append('|').append(item.getName()).append('|')
+                .append(item.getDescription()).append('|').append(item.getAvailable()).append('|')
+                .append(item.getOwner().getId());
+        for (Booking booking : Arrays.asList(lastBooking, nextBooking)) {
+            version.append('|');
+            if (booking != null) {
+                version.append(booking.getId()).append('|').append(booking.getStart()).append('|')
+                        .append(booking.getEnd()).append('|').append(booking.getBooker().getId()).append('|')
+                        .append(booking.getStatus());
+            }
+        }
+        for (Comment comment : comments) {
+            version.append('|').append(comment.getId()).append('|').append(comment.getText()).append('|')
+                    .append(comment.getAuthor().getName()).append('|').append(comment.getCreated());
+        }
+        return version.toString();
+    }
+
+    private void importBatch(User user, Map<Long, ItemDto> batch, ItemImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemRequest> requests = itemRequestService.getByIds(batch.values().stream()
+                .map(ItemDto::getRequestId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        List<Item> items = new ArrayList<>(batch.size());
+        List<Long> indexes = new ArrayList<>(batch.size());
+        batch.forEach((index, itemDto) -> {
+            if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                reportImportFailure(result, index, "Request " + itemDto.getRequestId() + " not found");
+                return;
+            }
+            itemDto.setId(0);
+            itemDto.setOwner(user.getId());
+            items.add(ItemMapper.toItem(itemDto, user,
+                    itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId())));
+            indexes.add(index);
+        });
+        try {
+            result.setImported(result.getImported() + itemService.addAll(items).size());
+        } catch (DataAccessException | TransactionException e) {
+            log.info("Import batch of user {} rejected: {}", user.getId(), e.getMessage());
+            for (Long index : indexes) {
+                reportImportFailure(result, index, "Batch rejected: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private static void reportImportFailure(ItemImportResultDto result, long index, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_IMPORT_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(index, error));
+        }
+    }
 }
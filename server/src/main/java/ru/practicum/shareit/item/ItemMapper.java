@@ -1,15 +1,22 @@
 package ru.practicum.shareit.item;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.availability.ItemSchedule;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @UtilityClass
 public class ItemMapper {
@@ -24,6 +31,12 @@ public class ItemMapper {
                 user);
     }
 
+    public static Item copyOf(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequest() == null ? null : ItemRequestMapper.copyOf(item.getRequest()),
+                item.getOwner() == null ? null : UserMapper.copyOf(item.getOwner()));
+    }
+
     public static ItemWithBookingDto toItemWithBookingDto(Item item, List<CommentDto> comments) {
         ItemWithBookingDto itemWithBookingDto = new ItemWithBookingDto(item.getId(), item.getName(),
                 item.getDescription(), item.getAvailable(), item.getOwner().getId());
@@ -35,4 +48,12 @@ public class ItemMapper {
         return new ItemForRequestDto(item.getId(), item.getName(), item.getDescription(), item.getRequest().getId(),
                 item.getAvailable());
     }
+
+    public static ItemAvailabilityDto toItemAvailabilityDto(long itemId, LocalDateTime from, LocalDateTime to,
+                                                            ItemSchedule schedule) {
+        return new ItemAvailabilityDto(itemId, from, to, schedule.isFree(from, to),
+                schedule.overlapping(from, to).stream()
+                        .map(booking -> BookingMapper.toBookingShortDto(booking, itemId))
+                        .collect(Collectors.toList()));
+    }
 }
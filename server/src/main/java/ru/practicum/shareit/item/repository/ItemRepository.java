@@ -1,25 +1,39 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findItemsByOwner(User owner, Pageable pageable);
+    Slice<Item> findItemsByOwner(User owner, Pageable pageable);
 
-    List<Item> findItemsByOwner(User owner);
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
 
-    Page<Item> findItemsByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailable(String name,
-                                                                                            String description,
-                                                                                            Boolean available,
-                                                                                            Pageable pageable);
+    @Query("select i.id from Item i where i.id in ?1")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Query("select i from Item i where i.available = true " +
+            "and (lower(i.name) like ?1 escape '\\' or lower(i.description) like ?1 escape '\\') " +
+            "order by case when lower(i.name) like ?1 escape '\\' then 0 else 1 end, i.id")
+    Slice<Item> searchAvailable(String pattern, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description, i.available) " +
+            "from Item i where i.id > ?1 order by i.id")
+    List<IndexedItem> findIndexedItems(long lastId, Pageable pageable);
 
     List<Item> findItemsByRequest_Id(Long requestId);
 
-    List<Item> findItemsByRequestIsNotNull();
+    @Query("select i from Item i left join fetch i.owner join fetch i.request where i.request.id in ?1")
+    List<Item> findItemsByRequest_IdIn(Collection<Long> requestIds);
 
+    @Query("select i from Item i join fetch i.owner where i.id in ?1")
+    List<Item> findItemsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@AllArgsConstructor
+public class IndexedItem {
+    private final long id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+
+    public static IndexedItem of(Item item) {
+        return new IndexedItem(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+}
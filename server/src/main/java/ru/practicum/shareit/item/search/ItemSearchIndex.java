@@ -0,0 +1,408 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class ItemSearchIndex implements MeterBinder {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long TERM_ENTRY_BYTES = 88;
+    private static final long ITEM_ENTRY_BYTES = 120;
+    private static final long ITEM_TERM_BYTES = 48;
+    private static final long GRAM_MEMBER_BYTES = 40;
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, LongPostingList> nameTerms = new HashMap<>();
+    private final Map<String, LongPostingList> descriptionTerms = new HashMap<>();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+    private final Map<Long, ItemTerms> indexed = new HashMap<>();
+    private final LongPostingList available = new LongPostingList();
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory-index:true}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        List<IndexedItem> batch;
+        do {
+            batch = itemRepository.findIndexedItems(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (IndexedItem item : batch) {
+                    // items written since the batch was read are already indexed with newer data
+                    if (!changedDuringRebuild.contains(item.getId())) {
+                        removeLocked(item.getId());
+                        addLocked(item);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Item search index built: {} items, {} terms, ~{} bytes", itemCount(), termCount(), footprint());
+    }
+
+    public boolean supports(String text) {
+        return ready && WORD.matcher(text).matches();
+    }
+
+    public void add(Item item) {
+        addAll(List.of(item));
+    }
+
+    public void addAll(List<Item> items) {
+        if (!enabled || items.isEmpty()) {
+            return;
+        }
+        List<IndexedItem> indexedItems = new ArrayList<>(items.size());
+        items.forEach(item -> indexedItems.add(IndexedItem.of(item)));
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (IndexedItem indexedItem : indexedItems) {
+                    markChangedLocked(indexedItem.getId());
+                    removeLocked(indexedItem.getId());
+                    addLocked(indexedItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> removedIds = List.copyOf(ids);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long id : removedIds) {
+                    markChangedLocked(id);
+                    removeLocked(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<Long> search(String text, int offset, int limit) {
+        String token = text.toLowerCase();
+        lock.readLock().lock();
+        try {
+            Set<String> matchingTerms = matchingTerms(token);
+            long[] byName = matching(nameTerms, matchingTerms);
+            long[] all = merge(byName, matching(descriptionTerms, matchingTerms));
+            List<Long> page = new ArrayList<>(limit);
+            int position = 0;
+            for (long id : byName) {
+                if (page.size() == limit) {
+                    return page;
+                }
+                if (available.contains(id) && position++ >= offset) {
+                    page.add(id);
+                }
+            }
+            for (long id : all) {
+                if (page.size() == limit) {
+                    return page;
+                }
+                if (available.contains(id) && Arrays.binarySearch(byName, id) < 0 && position++ >= offset) {
+                    page.add(id);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return indexed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return nameTerms.size() + descriptionTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long footprint() {
+        lock.readLock().lock();
+        try {
+            return itemFootprint() + available.footprint() + footprint(nameTerms) + footprint(descriptionTerms)
+                    + gramFootprint();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.search.index.items", this, ItemSearchIndex::itemCount)
+                .description("Items held by the in-memory search index")
+                .register(registry);
+        Gauge.builder("shareit.search.index.terms", this, ItemSearchIndex::termCount)
+                .description("Distinct name and description terms held by the in-memory search index")
+                .register(registry);
+        Gauge.builder("shareit.search.index.footprint", this, ItemSearchIndex::footprint)
+                .description("Estimated heap used by the in-memory search index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    private void addLocked(IndexedItem item) {
+        ItemTerms itemTerms = new ItemTerms(terms(item.getName()), terms(item.getDescription()));
+        for (String term : itemTerms.name) {
+            addTerm(nameTerms, term, item.getId());
+        }
+        for (String term : itemTerms.description) {
+            addTerm(descriptionTerms, term, item.getId());
+        }
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            available.add(item.getId());
+        } else {
+            available.remove(item.getId());
+        }
+        indexed.put(item.getId(), itemTerms);
+    }
+
+    private void removeLocked(long id) {
+        ItemTerms itemTerms = indexed.remove(id);
+        if (itemTerms == null) {
+            return;
+        }
+        for (String term : itemTerms.name) {
+            removeTerm(nameTerms, term, id);
+        }
+        for (String term : itemTerms.description) {
+            removeTerm(descriptionTerms, term, id);
+        }
+        available.remove(id);
+    }
+
+    private void markChangedLocked(long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+    }
+
+    private void addTerm(Map<String, LongPostingList> terms, String term, long id) {
+        if (!nameTerms.containsKey(term) && !descriptionTerms.containsKey(term)) {
+            for (String gram : grams(term, 1)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+        }
+        terms.computeIfAbsent(term, t -> new LongPostingList()).add(id);
+    }
+
+    private void removeTerm(Map<String, LongPostingList> terms, String term, long id) {
+        LongPostingList postings = terms.get(term);
+        if (postings == null) {
+            return;
+        }
+        postings.remove(id);
+        if (postings.isEmpty()) {
+            terms.remove(term);
+            if (!nameTerms.containsKey(term) && !descriptionTerms.containsKey(term)) {
+                for (String gram : grams(term, 1)) {
+                    Set<String> gramTerms = grams.get(gram);
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<String> matchingTerms(String token) {
+        if (token.length() <= GRAM_LENGTH) {
+            return grams.getOrDefault(token, Set.of());
+        }
+        Set<String> candidates = null;
+        for (String gram : grams(token, GRAM_LENGTH)) {
+            Set<String> gramTerms = grams.get(gram);
+            if (gramTerms == null) {
+                return Set.of();
+            }
+            if (candidates == null || gramTerms.size() < candidates.size()) {
+                candidates = gramTerms;
+            }
+        }
+        Set<String> matches = new HashSet<>();
+        for (String term : candidates) {
+            if (term.contains(token)) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+
+    private static Set<String> grams(String text, int minLength) {
+        Set<String> result = new HashSet<>();
+        for (int length = minLength; length <= GRAM_LENGTH; length++) {
+            for (int start = 0; start + length <= text.length(); start++) {
+                result.add(text.substring(start, start + length));
+            }
+        }
+        return result;
+    }
+
+    private static String[] terms(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text != null) {
+            for (String term : NON_WORD.split(text.toLowerCase())) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    private static long[] matching(Map<String, LongPostingList> terms, Set<String> matchingTerms) {
+        List<LongPostingList> matches = new ArrayList<>();
+        int total = 0;
+        for (String term : matchingTerms) {
+            LongPostingList postings = terms.get(term);
+            if (postings != null) {
+                matches.add(postings);
+                total += postings.size();
+            }
+        }
+        long[] ids = new long[total];
+        int position = 0;
+        for (LongPostingList postings : matches) {
+            position = postings.copyTo(ids, position);
+        }
+        return distinctSorted(ids);
+    }
+
+    private static long[] merge(long[] first, long[] second) {
+        long[] ids = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, ids, first.length, second.length);
+        return distinctSorted(ids);
+    }
+
+    private static long[] distinctSorted(long[] ids) {
+        Arrays.sort(ids);
+        int size = 0;
+        for (long id : ids) {
+            if (size == 0 || ids[size - 1] != id) {
+                ids[size++] = id;
+            }
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    private static long footprint(Map<String, LongPostingList> terms) {
+        long bytes = 0;
+        for (Map.Entry<String, LongPostingList> entry : terms.entrySet()) {
+            bytes += TERM_ENTRY_BYTES + 2L * entry.getKey().length() + entry.getValue().footprint();
+        }
+        return bytes;
+    }
+
+    private long itemFootprint() {
+        long bytes = 0;
+        for (ItemTerms itemTerms : indexed.values()) {
+            bytes += ITEM_ENTRY_BYTES + footprint(itemTerms.name) + footprint(itemTerms.description);
+        }
+        return bytes;
+    }
+
+    private static long footprint(String[] terms) {
+        long bytes = 0;
+        for (String term : terms) {
+            bytes += ITEM_TERM_BYTES + 2L * term.length();
+        }
+        return bytes;
+    }
+
+    private long gramFootprint() {
+        long bytes = 0;
+        for (Map.Entry<String, Set<String>> entry : grams.entrySet()) {
+            bytes += TERM_ENTRY_BYTES + 2L * entry.getKey().length() + GRAM_MEMBER_BYTES * entry.getValue().size();
+        }
+        return bytes;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ItemTerms {
+        private final String[] name;
+        private final String[] description;
+    }
+}
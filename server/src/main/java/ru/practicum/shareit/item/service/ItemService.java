@@ -7,19 +7,23 @@ import ru.practicum.shareit.item.exception.OwnerNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     List<Item> getUserItems(Long userId, int from, int size) throws UserNotFoundException;
 
-    List<Item> getUserItems(Long userId) throws UserNotFoundException;
-
     Item get(Long id) throws ItemNotFoundException;
 
+    Map<Long, Item> getByIds(Collection<Long> ids);
+
     List<Item> search(String searchString, int from, int size);
 
     Item add(Item item) throws ItemNotFoundException, UserNotFoundException, OwnerNotFoundException;
 
+    List<Item> addAll(List<Item> items);
+
     Item update(Item item) throws AccessViolationException, OwnerNotFoundException, ItemNotFoundException;
 
     boolean canUserComment(Long userId, Long itemId);
@@ -28,8 +32,9 @@ public interface ItemService {
 
     List<Comment> getCommentsByItemId(Long itemId);
 
-    List<Item> getItemsByRequestId(Long requestId);
+    Map<Long, List<Comment>> getCommentsByItemIds(Collection<Long> itemIds);
 
+    List<Item> getItemsByRequestId(Long requestId);
 
-    List<Item> getRequestedItems();
+    Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds);
 }
@@ -3,10 +3,12 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.SnapshotCache;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.exception.AccessViolationException;
@@ -14,12 +16,18 @@ import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.OwnerNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +38,8 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final SnapshotCache<Item> itemCache;
 
     @Override
     public List<Item> getUserItems(Long userId, int from, int size) throws UserNotFoundException {
@@ -40,14 +50,22 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<Item> getUserItems(Long userId) throws UserNotFoundException {
-        return itemRepository.findItemsByOwner(userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User " + userId + " not found")));
+    public Item get(Long id) throws ItemNotFoundException {
+        Item cachedItem = itemCache.get(id);
+        if (cachedItem != null) {
+            return cachedItem;
+        }
+        return itemCache.put(itemRepository.findById(id)
+                .orElseThrow(() -> new ItemNotFoundException("Item " + id + " not found")));
     }
 
     @Override
-    public Item get(Long id) throws ItemNotFoundException {
-        return itemRepository.findById(id).orElseThrow(() -> new ItemNotFoundException("Item " + id + " not found"));
+    public Map<Long, Item> getByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
     }
 
     @Override
@@ -55,9 +73,14 @@ public class ItemServiceImpl implements ItemService {
         if (searchString == null || searchString.isBlank()) {
             return new ArrayList<>();
         }
-        return itemRepository.findItemsByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailable(searchString,
-                searchString, true, PageRequest.of(from > 0 ? from / size : 0, size,
-                        Sort.by("id").ascending())).toList();
+        if (itemSearchIndex.supports(searchString)) {
+            List<Long> ids = itemSearchIndex.search(searchString, (from > 0 ? from / size : 0) * size, size);
+            Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            return ids.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+        return itemRepository.searchAvailable("%" + EscapeCharacter.DEFAULT.escape(searchString.toLowerCase()) + "%",
+                PageRequest.of(from > 0 ? from / size : 0, size)).toList();
     }
 
     @Override
@@ -65,7 +88,16 @@ public class ItemServiceImpl implements ItemService {
         if (!userRepository.existsById(item.getOwner().getId())) {
             throw new OwnerNotFoundException("Owner " + item.getOwner() + " doesn't exist");
         }
-        return itemRepository.save(item);
+        Item addedItem = itemRepository.save(item);
+        itemSearchIndex.add(addedItem);
+        return itemCache.put(addedItem);
+    }
+
+    @Override
+    public List<Item> addAll(List<Item> items) {
+        List<Item> addedItems = itemRepository.saveAll(items);
+        itemSearchIndex.addAll(addedItems);
+        return addedItems;
     }
 
     @Override
@@ -75,7 +107,7 @@ public class ItemServiceImpl implements ItemService {
         if (!userRepository.existsById(item.getOwner().getId())) {
             throw new OwnerNotFoundException("Owner " + item.getOwner().getId() + " doesn't exist");
         }
-        if (!item.getOwner().equals(originalItem.getOwner())) {
+        if (item.getOwner().getId() != originalItem.getOwner().getId()) {
             throw new AccessViolationException("Access from user " + item.getOwner().getId() + " to item "
                     + item.getId() + " not granted");
         }
@@ -88,7 +120,9 @@ public class ItemServiceImpl implements ItemService {
         if (!(item.getAvailable() == null)) {
             originalItem.setAvailable(item.getAvailable());
         }
-        return itemRepository.save(originalItem);
+        Item updatedItem = itemRepository.save(originalItem);
+        itemSearchIndex.add(updatedItem);
+        return itemCache.put(updatedItem);
     }
 
     @Override
@@ -107,13 +141,26 @@ public class ItemServiceImpl implements ItemService {
         return commentRepository.findCommentsByItem_Id(itemId);
     }
 
+    @Override
+    public Map<Long, List<Comment>> getCommentsByItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findCommentsByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
     @Override
     public List<Item> getItemsByRequestId(Long requestId) {
         return itemRepository.findItemsByRequest_Id(requestId);
     }
 
     @Override
-    public List<Item> getRequestedItems() {
-        return itemRepository.findItemsByRequestIsNotNull();
+    public Map<Long, List<Item>> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findItemsByRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
     }
 }
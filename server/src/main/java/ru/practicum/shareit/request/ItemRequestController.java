@@ -4,16 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemDto;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -63,10 +66,7 @@ public class ItemRequestController {
         if (!userService.exist(requestorId)) {
             throw new UserNotFoundException("User " + requestorId + " not found");
         }
-        return itemRequestService.getListByRequestorId(requestorId).stream()
-                .map(i -> ItemRequestMapper.toItemRequestWithItemDto(i, itemService.getItemsByRequestId(i.getRequestor()
-                        .getId()).stream().map(ItemMapper::toItemForRequestDto).collect(Collectors.toList())))
-                .collect(Collectors.toList());
+        return withItems(itemRequestService.getListByRequestorId(requestorId));
     }
 
     @GetMapping("/all")
@@ -74,11 +74,15 @@ public class ItemRequestController {
                                                @RequestParam(defaultValue = "0") int from,
                                                @RequestParam(defaultValue = "20") int size) {
         log.info(this.getClass().getSimpleName() + ": GET: userId: " + userId + " from: " + from + " size: " + size);
-        List<Long> validRequests = itemService.getRequestedItems().stream().filter(i -> i.getOwner().getId() != userId)
-                .map(i -> i.getRequest().getId()).collect(Collectors.toList());
-        return itemRequestService.getListOfAll(from, size).stream()
-                .map(i -> ItemRequestMapper.toItemRequestWithItemDto(i, itemService.getItemsByRequestId(i.getRequestor()
-                        .getId()).stream().map(ItemMapper::toItemForRequestDto).collect(Collectors.toList())))
-                .filter(idto -> !validRequests.contains(idto.getId())).collect(Collectors.toList());
+        return withItems(itemRequestService.getListOfAll(userId, from, size));
+    }
+
+    private List<ItemRequestWithItemDto> withItems(List<ItemRequest> itemRequests) {
+        Map<Long, List<Item>> items = itemService.getItemsByRequestIds(itemRequests.stream().map(ItemRequest::getId)
+                .collect(Collectors.toList()));
+        return itemRequests.stream()
+                .map(i -> ItemRequestMapper.toItemRequestWithItemDto(i, items.getOrDefault(i.getId(), List.of())
+                        .stream().map(ItemMapper::toItemForRequestDto).collect(Collectors.toList())))
+                .collect(Collectors.toList());
     }
 }
@@ -5,6 +5,7 @@ import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -22,4 +23,10 @@ public class ItemRequestMapper {
     public static ItemRequestWithItemDto toItemRequestWithItemDto(ItemRequest itemRequest, List<ItemForRequestDto> items) {
         return new ItemRequestWithItemDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(), items);
     }
+
+    public static ItemRequest copyOf(ItemRequest itemRequest) {
+        return new ItemRequest(itemRequest.getId(), itemRequest.getDescription(),
+                itemRequest.getRequestor() == null ? null : UserMapper.copyOf(itemRequest.getRequestor()),
+                itemRequest.getCreated());
+    }
 }
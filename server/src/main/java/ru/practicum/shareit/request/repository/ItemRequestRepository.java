@@ -1,10 +1,19 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findItemRequestsByRequestor_IdOrderByCreatedDesc(Long requestorId);
+
+    @Query("select r.id from ItemRequest r where r.requestor.id = ?1")
+    List<Long> findIdsByRequestorId(Long requestorId);
+
+    @Query("select r from ItemRequest r join fetch r.requestor where r.requestor.id <> ?1")
+    Slice<ItemRequest> findOtherUsersRequests(Long userId, Pageable pageable);
 }
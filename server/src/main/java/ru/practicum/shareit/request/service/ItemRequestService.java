@@ -3,16 +3,20 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemRequestService {
     ItemRequest add(ItemRequest itemRequest);
 
     ItemRequest getById(Long itemRequestId) throws ItemRequestNotFoundException;
 
+    Map<Long, ItemRequest> getByIds(Collection<Long> itemRequestIds);
+
     List<ItemRequest> getListByRequestorId(Long requestorId);
 
-    List<ItemRequest> getListOfAll(int from, int size);
+    List<ItemRequest> getListOfAll(Long userId, int from, int size);
 
     boolean exist(Long requestId);
 }
@@ -5,11 +5,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.SnapshotCache;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,16 +22,30 @@ import java.util.List;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
+    private final SnapshotCache<ItemRequest> itemRequestCache;
 
     @Override
     public ItemRequest add(ItemRequest itemRequest) {
-        return itemRequestRepository.save(itemRequest);
+        return itemRequestCache.put(itemRequestRepository.save(itemRequest));
     }
 
     @Override
     public ItemRequest getById(Long itemRequestId) throws ItemRequestNotFoundException {
-        return itemRequestRepository.findById(itemRequestId)
-                .orElseThrow(() -> new ItemRequestNotFoundException("Request " + itemRequestId + " not found"));
+        ItemRequest cachedItemRequest = itemRequestCache.get(itemRequestId);
+        if (cachedItemRequest != null) {
+            return cachedItemRequest;
+        }
+        return itemRequestCache.put(itemRequestRepository.findById(itemRequestId)
+                .orElseThrow(() -> new ItemRequestNotFoundException("Request " + itemRequestId + " not found")));
+    }
+
+    @Override
+    public Map<Long, ItemRequest> getByIds(Collection<Long> itemRequestIds) {
+        if (itemRequestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRequestRepository.findAllById(itemRequestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
     }
 
     @Override
@@ -35,8 +54,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequest> getListOfAll(int from, int size) {
-        return itemRequestRepository.findAll(PageRequest.of(from > 0 ? from / size : 0, size,
+    public List<ItemRequest> getListOfAll(Long userId, int from, int size) {
+        return itemRequestRepository.findOtherUsersRequests(userId, PageRequest.of(from > 0 ? from / size : 0, size,
                 Sort.by("created").descending())).toList();
     }
 
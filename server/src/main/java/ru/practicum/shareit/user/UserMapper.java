@@ -13,4 +13,8 @@ public class UserMapper {
     public static User toUser(UserDto userDto) {
         return new User(userDto.getId(), userDto.getName(), userDto.getEmail());
     }
+
+    public static User copyOf(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
 }
@@ -2,6 +2,13 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.cache.SnapshotCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -15,6 +22,13 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final SnapshotCache<User> userCache;
+    private final SnapshotCache<Item> itemCache;
+    private final SnapshotCache<ItemRequest> itemRequestCache;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     public List<User> getAll() {
@@ -23,12 +37,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User get(Long id) throws UserNotFoundException {
-        return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("User " + id + " not found"));
+        User cachedUser = userCache.get(id);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+        return userCache.put(userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User " + id + " not found")));
     }
 
     @Override
     public User add(User user) throws UserNotFoundException {
-        return userRepository.save(user);
+        return userCache.put(userRepository.save(user));
     }
 
     @Override
@@ -41,7 +60,9 @@ public class UserServiceImpl implements UserService {
         if (!(user.getEmail() == null)) {
             originalUser.setEmail(user.getEmail());
         }
-        return userRepository.save(originalUser);
+        itemRepository.findIdsByOwnerId(originalUser.getId()).forEach(itemCache::evict);
+        itemRequestRepository.findIdsByRequestorId(originalUser.getId()).forEach(itemRequestCache::evict);
+        return userCache.put(userRepository.save(originalUser));
     }
 
     @Override
@@ -49,7 +70,13 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException("User " + id + " not found");
         }
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
         userRepository.deleteById(id);
+        itemSearchIndex.removeAll(itemIds);
+        itemAvailabilityIndex.clear();
+        userCache.evict(id);
+        itemCache.clear();
+        itemRequestCache.clear();
     }
 
     @Override
@@ -8,18 +8,38 @@ drop table if exists requests cascade;
 
 drop table if exists users cascade;
 
+drop sequence if exists bookings_seq;
 
+drop sequence if exists comments_seq;
+
+drop sequence if exists items_seq;
+
+drop sequence if exists requests_seq;
+
+drop sequence if exists users_seq;
+
+
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id    BIGINT                                  NOT NULL PRIMARY KEY,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(512) UNIQUE                     NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id           BIGINT                                  NOT NULL PRIMARY KEY,
     description  VARCHAR(512)                            NOT NULL,
     requestor_id BIGINT,
     created      TIMESTAMP WITHOUT TIME ZONE,
@@ -28,7 +48,7 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id           BIGINT                                  NOT NULL PRIMARY KEY,
     name         VARCHAR(255)                            NOT NULL,
     description  VARCHAR(512)                            NOT NULL,
     is_available BOOLEAN,
@@ -40,7 +60,7 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id         BIGINT                                  NOT NULL PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date   TIMESTAMP WITHOUT TIME ZONE,
     item_id    BIGINT,
@@ -52,11 +72,23 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id        BIGINT                                  NOT NULL PRIMARY KEY,
     text      VARCHAR(1024)                           NOT NULL,
     item_id   BIGINT,
     author_id BIGINT,
     created   TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
@@ -0,0 +1,144 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache",
+        "spring.cache.type=caffeine",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class EntityCacheTests {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getUserIsServedFromCacheTest() throws Exception {
+        User user = userService.add(new User(0, "cached_user", "cached_user@test.ru"));
+        Statistics statistics = statistics();
+        Assertions.assertEquals(user, userService.get(user.getId()));
+        Assertions.assertEquals(user, userService.get(user.getId()));
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateUserRefreshesCacheTest() throws Exception {
+        User user = userService.add(new User(0, "updated_user", "updated_user@test.ru"));
+        userService.update(new User(user.getId(), "new_name", null));
+        Assertions.assertEquals("new_name", userService.get(user.getId()).getName());
+    }
+
+    @Test
+    void deleteUserEvictsCacheTest() throws Exception {
+        User user = userService.add(new User(0, "deleted_user", "deleted_user@test.ru"));
+        userService.delete(user.getId());
+        Assertions.assertNull(cacheManager.getCache("users").get(user.getId()));
+        Assertions.assertThrows(UserNotFoundException.class, () -> userService.get(user.getId()));
+    }
+
+    @Test
+    void deleteOwnerRemovesItemsFromSearchIndexTest() throws Exception {
+        User owner = userService.add(new User(0, "deleted_owner", "deleted_owner@test.ru"));
+        Item item = itemService.add(new Item(0, "Стремянка", "description", true, null, owner));
+        Assertions.assertEquals(List.of(item.getId()), itemSearchIndex.search("стремянка", 0, 20));
+        userService.delete(owner.getId());
+        Assertions.assertTrue(itemSearchIndex.search("стремянка", 0, 20).isEmpty());
+    }
+
+    @Test
+    void rolledBackUserIsNotCachedTest() throws Exception {
+        userService.add(new User(0, "first_user", "duplicate@test.ru"));
+        User duplicate = new User(0, "second_user", "duplicate@test.ru");
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> userService.add(duplicate));
+        Assertions.assertNull(cacheManager.getCache("users").get(duplicate.getId()));
+        Assertions.assertThrows(UserNotFoundException.class, () -> userService.get(duplicate.getId()));
+    }
+
+    @Test
+    void updateUserEvictsOwnedItemsTest() throws Exception {
+        User owner = userService.add(new User(0, "renamed_owner", "renamed_owner@test.ru"));
+        Item item = itemService.add(new Item(0, "renamed_owner_item", "description", true, null, owner));
+        itemService.get(item.getId());
+        userService.update(new User(owner.getId(), "new_owner_name", null));
+        Assertions.assertNull(cacheManager.getCache("items").get(item.getId()));
+        Assertions.assertEquals("new_owner_name", itemService.get(item.getId()).getOwner().getName());
+    }
+
+    @Test
+    void deleteUserEvictsOwnedItemsAndRequestsTest() throws Exception {
+        User owner = userService.add(new User(0, "deleted_owner", "deleted_owner@test.ru"));
+        Item item = itemService.add(new Item(0, "owned_item", "description", true, null, owner));
+        ItemRequest itemRequest = itemRequestService.add(new ItemRequest(0, "owned_request", owner, null));
+        userService.delete(owner.getId());
+        Assertions.assertNull(cacheManager.getCache("items").get(item.getId()));
+        Assertions.assertNull(cacheManager.getCache("requests").get(itemRequest.getId()));
+    }
+
+    @Test
+    void cachedUserIsNotSharedTest() throws Exception {
+        User user = userService.add(new User(0, "shared_user", "shared_user@test.ru"));
+        User cachedUser = userService.get(user.getId());
+        cachedUser.setName("changed_name");
+        Assertions.assertNotSame(cachedUser, userService.get(user.getId()));
+        Assertions.assertEquals("shared_user", userService.get(user.getId()).getName());
+    }
+
+    @Test
+    void getItemIsServedFromCacheTest() throws Exception {
+        User owner = userService.add(new User(0, "item_owner", "item_owner@test.ru"));
+        Item item = itemService.add(new Item(0, "cached_item", "description", true, null, owner));
+        Statistics statistics = statistics();
+        Assertions.assertEquals(item, itemService.get(item.getId()));
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        itemService.update(new Item(item.getId(), "new_name", null, null, null, owner));
+        Assertions.assertEquals("new_name", itemService.get(item.getId()).getName());
+    }
+
+    @Test
+    void getItemRequestIsServedFromCacheTest() throws Exception {
+        User requestor = userService.add(new User(0, "requestor", "requestor@test.ru"));
+        ItemRequest itemRequest = itemRequestService.add(new ItemRequest(0, "cached_request", requestor, null));
+        Statistics statistics = statistics();
+        Assertions.assertEquals(itemRequest, itemRequestService.getById(itemRequest.getId()));
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
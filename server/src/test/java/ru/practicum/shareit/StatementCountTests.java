@@ -0,0 +1,248 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+public class StatementCountTests {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @Test
+    void getUserItemsStatementCountDoesNotDependOnPageSizeTest() throws Exception {
+        User smallOwner = seedOwner("small", 2);
+        User largeOwner = seedOwner("large", 10);
+        long smallPageStatements = countStatements(get("/items").header("X-Sharer-User-Id", smallOwner.getId()));
+        long largePageStatements = countStatements(get("/items").header("X-Sharer-User-Id", largeOwner.getId()));
+        Assertions.assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    @Test
+    void getAllRequestsStatementCountDoesNotDependOnPageSizeTest() throws Exception {
+        User user = userRepository.save(new User(0, "answered_user", "answered_user@test.ru"));
+        for (int i = 0; i < 10; i++) {
+            User requestor = userRepository.save(new User(0, "answered_requestor_" + i,
+                    "answered_requestor_" + i + "@test.ru"));
+            User owner = userRepository.save(new User(0, "answered_owner_" + i, "answered_owner_" + i + "@test.ru"));
+            ItemRequest itemRequest = itemRequestRepository.save(new ItemRequest(0, "answered_request_" + i,
+                    requestor, null));
+            itemRepository.save(new Item(0, "answered_item_" + i, "description", true, itemRequest, owner));
+        }
+        long smallPageStatements = countStatements(get("/requests/all").header("X-Sharer-User-Id", user.getId())
+                .param("size", "2"));
+        long largePageStatements = countStatements(get("/requests/all").header("X-Sharer-User-Id", user.getId())
+                .param("size", "10"));
+        Assertions.assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    @Test
+    void getUserItemsRunsNoCountQueryTest() throws Exception {
+        User owner = seedOwner("items", 2);
+        assertNoCountQueries(get("/items").header("X-Sharer-User-Id", owner.getId()).param("size", "1"));
+    }
+
+    @Test
+    void searchRunsNoCountQueryTest() throws Exception {
+        seedOwner("search", 2);
+        assertNoCountQueries(get("/items/search").param("text", "search_item").param("size", "1"));
+    }
+
+    @Test
+    void getAllRequestsRunsNoCountQueryTest() throws Exception {
+        User requestor = userRepository.save(new User(0, "requestor", "requestor@test.ru"));
+        User user = userRepository.save(new User(0, "requests_user", "requests_user@test.ru"));
+        itemRequestRepository.save(new ItemRequest(0, "first_request", requestor, null));
+        itemRequestRepository.save(new ItemRequest(0, "second_request", requestor, null));
+        assertNoCountQueries(get("/requests/all").header("X-Sharer-User-Id", user.getId()).param("size", "1"));
+    }
+
+    @Test
+    void getListOfUserBookingsRunsNoCountQueryTest() throws Exception {
+        User booker = userRepository.save(new User(0, "booker", "booker@test.ru"));
+        Item item = itemRepository.save(new Item(0, "booker_item", "description", true, null,
+                seedOwner("booker", 0)));
+        bookingRepository.save(new Booking(0, now.minusDays(2), now.minusDays(1), item, booker,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(0, now.plusDays(1), now.plusDays(2), item, booker,
+                BookingStatus.WAITING));
+        assertNoCountQueries(get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("size", "1"));
+    }
+
+    @Test
+    void getListOfOwnerBookingsRunsNoCountQueryTest() throws Exception {
+        User owner = seedOwner("owner_bookings", 2);
+        assertNoCountQueries(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()).param("size", "1"));
+    }
+
+    @Test
+    void listBookingsLoadsNoBookingEntitiesTest() throws Exception {
+        User owner = seedOwner("projected", 5);
+        Statistics statistics = perform(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()));
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getItemLoadsItemOnceTest() throws Exception {
+        User owner = userRepository.save(new User(0, "single_item_owner", "single_item_owner@test.ru"));
+        Item item = itemRepository.save(new Item(0, "single_item", "description", true, null, owner));
+        Statistics statistics = perform(get("/items/" + item.getId()).header("X-Sharer-User-Id", owner.getId()));
+        Assertions.assertEquals(1, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void getBookingLoadsBookingOnceTest() throws Exception {
+        Booking booking = seedBooking("single_booking");
+        Statistics statistics = perform(get("/bookings/" + booking.getId())
+                .header("X-Sharer-User-Id", booking.getItem().getOwner().getId()));
+        Assertions.assertEquals(1, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        Assertions.assertEquals(1, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void approveBookingLoadsNoEntitiesTest() throws Exception {
+        Booking booking = seedBooking("approved_booking");
+        Statistics statistics = perform(patch("/bookings/" + booking.getId())
+                .header("X-Sharer-User-Id", booking.getItem().getOwner().getId())
+                .param("approved", "true"));
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createAllBatchesInsertsTest() {
+        Booking seed = seedBooking("batched_booking");
+        List<Booking> bookings = IntStream.range(0, 50)
+                .mapToObj(i -> new Booking(0, now.plusDays(10 + i), now.plusDays(11 + i), seed.getItem(),
+                        seed.getBooker(), BookingStatus.WAITING))
+                .collect(Collectors.toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Assertions.assertEquals(50, bookingService.createAll(bookings).size());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 10);
+    }
+
+    @Test
+    void updateAllRunsConstantStatementsTest() {
+        Booking seed = seedBooking("batch_approved_booking");
+        Map<Long, BookingStatus> statuses = bookingService.createAll(IntStream.range(0, 50)
+                        .mapToObj(i -> new Booking(0, now.plusDays(100 + i), now.plusDays(101 + i), seed.getItem(),
+                                seed.getBooker(), BookingStatus.WAITING))
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> BookingStatus.APPROVED));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Assertions.assertEquals(50, bookingService.updateAll(seed.getItem().getOwner().getId(), statuses).size());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 10);
+    }
+
+    @Test
+    void saveAllBatchesInsertsTest() {
+        List<User> users = IntStream.range(0, 100)
+                .mapToObj(i -> new User(0, "batched_user_" + i, "batched_user_" + i + "@test.ru"))
+                .collect(Collectors.toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        userRepository.saveAll(users);
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 10);
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+        return perform(request).getPrepareStatementCount();
+    }
+
+    private void assertNoCountQueries(MockHttpServletRequestBuilder request) throws Exception {
+        for (String query : perform(request).getQueries()) {
+            Assertions.assertFalse(query.toLowerCase().contains("count("), query);
+        }
+    }
+
+    private Statistics perform(MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        return statistics;
+    }
+
+    private Booking seedBooking(String prefix) {
+        User owner = userRepository.save(new User(0, prefix + "_owner", prefix + "_owner@test.ru"));
+        User booker = userRepository.save(new User(0, prefix + "_booker", prefix + "_booker@test.ru"));
+        Item item = itemRepository.save(new Item(0, prefix + "_item", "description", true, null, owner));
+        return bookingRepository.save(new Booking(0, now.plusDays(1), now.plusDays(2), item, booker,
+                BookingStatus.WAITING));
+    }
+
+    private User seedOwner(String prefix, int itemCount) {
+        User owner = userRepository.save(new User(0, prefix + "_owner", prefix + "_owner@test.ru"));
+        for (int i = 0; i < itemCount; i++) {
+            User booker = userRepository.save(new User(0, prefix + "_booker_" + i,
+                    prefix + "_booker_" + i + "@test.ru"));
+            Item item = itemRepository.save(new Item(0, prefix + "_item_" + i, "description", true, null, owner));
+            bookingRepository.save(new Booking(0, now.minusDays(2), now.minusDays(1), item, booker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(0, now.plusDays(1), now.plusDays(2), item, booker,
+                    BookingStatus.WAITING));
+            commentRepository.save(new Comment(0, "comment_" + i, item, booker, null));
+        }
+        return owner;
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batches")
+@AutoConfigureMockMvc
+public class BookingBatchTests {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Test
+    void updateBatchTest() throws Exception {
+        User owner = userService.add(new User(0, "batch_owner", "batch_owner@test.ru"));
+        User booker = userService.add(new User(0, "batch_booker", "batch_booker@test.ru"));
+        Item item = itemService.add(new Item(0, "batch_item", "description", true, null, owner));
+        Booking approved = bookingService.create(new Booking(0, start, start.plusDays(1), item, booker,
+                BookingStatus.WAITING));
+        Booking rejected = bookingService.create(new Booking(0, start.plusDays(2), start.plusDays(3), item, booker,
+                BookingStatus.WAITING));
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(new BookingApprovalDto(approved.getId(), true),
+                                new BookingApprovalDto(rejected.getId(), false)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id", is(approved.getId()), Long.class))
+                .andExpect(jsonPath("$[0].booking.status", is(BookingStatus.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].booking.id", is(rejected.getId()), Long.class))
+                .andExpect(jsonPath("$[1].booking.status", is(BookingStatus.REJECTED.toString())));
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingService.getById(approved.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.REJECTED, bookingService.getById(rejected.getId()).getStatus());
+    }
+
+    @Test
+    void updateBatchCommitsValidEntriesTest() throws Exception {
+        User owner = userService.add(new User(0, "mixed_batch_owner", "mixed_batch_owner@test.ru"));
+        User booker = userService.add(new User(0, "mixed_batch_booker", "mixed_batch_booker@test.ru"));
+        Item item = itemService.add(new Item(0, "mixed_batch_item", "description", true, null, owner));
+        Booking valid = bookingService.create(new Booking(0, start, start.plusDays(2), item, booker,
+                BookingStatus.WAITING));
+        Booking overlapping = bookingService.create(new Booking(0, start.plusDays(1), start.plusDays(3), item, booker,
+                BookingStatus.WAITING));
+        Booking approved = bookingService.create(new Booking(0, start.plusDays(5), start.plusDays(6), item, booker,
+                BookingStatus.APPROVED));
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(new BookingApprovalDto(valid.getId(), true),
+                                new BookingApprovalDto(overlapping.getId(), true),
+                                new BookingApprovalDto(approved.getId(), false),
+                                new BookingApprovalDto(Long.MAX_VALUE, true)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.status", is(BookingStatus.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].error", is("Item: " + item.getId() + " is already booked from "
+                        + overlapping.getStart() + " to " + overlapping.getEnd())))
+                .andExpect(jsonPath("$[2].error", is("Status of booking " + approved.getId() + " is not WAITING")))
+                .andExpect(jsonPath("$[3].error", is("Booking: " + Long.MAX_VALUE + " not found")));
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingService.getById(valid.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, bookingService.getById(overlapping.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingService.getById(approved.getId()).getStatus());
+    }
+
+    @Test
+    void createBatchReportsOverlapPerEntryTest() throws Exception {
+        User owner = userService.add(new User(0, "overlap_batch_owner", "overlap_batch_owner@test.ru"));
+        User booker = userService.add(new User(0, "overlap_batch_booker", "overlap_batch_booker@test.ru"));
+        Item item = itemService.add(new Item(0, "overlap_batch_item", "description", true, null, owner));
+        bookingService.create(new Booking(0, start, start.plusDays(1), item, booker, BookingStatus.APPROVED));
+        BookingShortDto free = new BookingShortDto(0, start.plusDays(2), start.plusDays(3), item.getId(), null,
+                null);
+        BookingShortDto overlapping = new BookingShortDto(0, start.plusHours(1), start.plusDays(2), item.getId(),
+                null, null);
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(free, overlapping))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.status", is(BookingStatus.WAITING.toString())))
+                .andExpect(jsonPath("$[1].booking").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Item: " + item.getId() + " is already booked from "
+                        + overlapping.getStart() + " to " + overlapping.getEnd())));
+        Assertions.assertEquals(2, bookingService.getAllByBookerId(booker.getId(), 0, 20).size());
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.exception.BookingStatusException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conflicts")
+public class BookingConflictTests {
+    private static final int THREADS = 16;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Test
+    void createOverlappingApprovedBookingTest() throws Exception {
+        Item item = seedItem("overlap");
+        User booker = userService.add(new User(0, "overlap_booker", "overlap_booker@test.ru"));
+        bookingService.create(new Booking(0, start, start.plusDays(2), item, booker, BookingStatus.APPROVED));
+        Assertions.assertThrows(BookingOverlapException.class, () -> bookingService.create(
+                new Booking(0, start.plusDays(1), start.plusDays(3), item, booker, BookingStatus.WAITING)));
+        Assertions.assertDoesNotThrow(() -> bookingService.create(
+                new Booking(0, start.plusDays(2), start.plusDays(3), item, booker, BookingStatus.WAITING)));
+    }
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsTest() throws Exception {
+        Item item = seedItem("race");
+        User booker = userService.add(new User(0, "race_booker", "race_booker@test.ru"));
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookings.add(bookingService.create(new Booking(0, start.plusHours(i), start.plusHours(i).plusDays(1),
+                    item, booker, BookingStatus.WAITING)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> approvals = new ArrayList<>();
+        for (Booking booking : bookings) {
+            approvals.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.updateStatus(booking.getId(), item.getOwner().getId(), BookingStatus.APPROVED);
+                    return true;
+                } catch (BookingOverlapException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int approved = 0;
+        for (Future<Boolean> approval : approvals) {
+            if (approval.get(30, TimeUnit.SECONDS)) {
+                approved++;
+            }
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, approved);
+        int stored = 0;
+        for (Booking booking : bookings) {
+            if (bookingService.getById(booking.getId()).getStatus() == BookingStatus.APPROVED) {
+                stored++;
+            }
+        }
+        Assertions.assertEquals(1, stored);
+    }
+
+    @Test
+    void racingApprovalsOfSameBookingTest() throws Exception {
+        Item item = seedItem("approval");
+        User booker = userService.add(new User(0, "approval_booker", "approval_booker@test.ru"));
+        long bookingId = bookingService.create(new Booking(0, start, start.plusDays(1), item, booker,
+                BookingStatus.WAITING)).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<BookingStatus>> decisions = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            BookingStatus status = i % 2 == 0 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            decisions.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    return bookingService.updateStatus(bookingId, item.getOwner().getId(), status).getStatus();
+                } catch (BookingStatusException e) {
+                    return null;
+                }
+            }));
+        }
+        startSignal.countDown();
+        List<BookingStatus> applied = new ArrayList<>();
+        for (Future<BookingStatus> decision : decisions) {
+            BookingStatus status = decision.get(30, TimeUnit.SECONDS);
+            if (status != null) {
+                applied.add(status);
+            }
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, applied.size());
+        Assertions.assertEquals(applied.get(0), bookingService.getById(bookingId).getStatus());
+    }
+
+    private Item seedItem(String prefix) throws Exception {
+        User owner = userService.add(new User(0, prefix + "_owner", prefix + "_owner@test.ru"));
+        return itemService.add(new Item(0, prefix + "_item", "description", true, null, owner));
+    }
+}
@@ -1,16 +1,24 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.exception.BookingStatusException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingUpdateResult;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -18,11 +26,14 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +48,8 @@ public class BookingControllerTests {
     private final Booking booking = new Booking(1, LocalDateTime.now().withNano(0).plusDays(1),
             LocalDateTime.now().withSecond(1).withNano(0).plusDays(2), item, secondUser, BookingStatus.WAITING);
     private final BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+    private final BookingView bookingView = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(),
+            item.getId(), item.getName(), secondUser.getId(), booking.getStatus());
 
     private final BookingShortDto bookingShortDto = BookingMapper.toBookingShortDto(booking);
 
@@ -68,13 +81,38 @@ public class BookingControllerTests {
                 .andExpect(jsonPath("$.item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$.booker.id", is(bookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
+        Mockito.verify(bookingService, Mockito.times(1)).getById(1L);
+        Mockito.verify(itemService, Mockito.never()).get(Mockito.anyLong());
+    }
+
+    @Test
+    void getBookingByIdNotModifiedTest() throws Exception {
+        Mockito.when(bookingService.getById(Mockito.anyLong())).thenReturn(booking);
+        String eTag = mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        booking.setStatus(BookingStatus.APPROVED);
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(BookingStatus.APPROVED.toString())));
     }
 
     @Test
     void getListOfUserBookingsWaitingTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerIdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
-                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "WAITING")
@@ -94,7 +132,7 @@ public class BookingControllerTests {
     void getListOfUserBookingsFutureTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerIdFutureStart(Mockito.anyLong(), Mockito.anyInt(),
-                Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "FUTURE")
@@ -114,7 +152,7 @@ public class BookingControllerTests {
     void getListOfUserBookingsAllTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerId(Mockito.anyLong(), Mockito.anyInt(),
-                Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "ALL")
@@ -134,7 +172,7 @@ public class BookingControllerTests {
     void getListOfUserBookingsPastTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerIdPastEnd(Mockito.anyLong(), Mockito.anyInt(),
-                Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "PAST")
@@ -154,7 +192,7 @@ public class BookingControllerTests {
     void getListOfUserBookingsCurrentTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerIdCurrent(Mockito.anyLong(), Mockito.anyInt(),
-                Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "CURRENT")
@@ -174,7 +212,7 @@ public class BookingControllerTests {
     void getListOfUserBookingsRejectedTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerIdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
-                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "REJECTED")
@@ -192,8 +230,8 @@ public class BookingControllerTests {
 
     @Test
     void getListOfOwnerBookingsWaitingTest() throws Exception {
-        Mockito.when(bookingService.getAllByItemListAndStatus(Mockito.anyList(), Mockito.any(BookingStatus.class),
-                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(booking));
+        Mockito.when(bookingService.getAllByOwnerIdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
+                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "WAITING")
@@ -211,8 +249,8 @@ public class BookingControllerTests {
 
     @Test
     void getListOfOwnerBookingsRejectedTest() throws Exception {
-        Mockito.when(bookingService.getAllByItemListAndStatus(Mockito.anyList(), Mockito.any(BookingStatus.class),
-                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(booking));
+        Mockito.when(bookingService.getAllByOwnerIdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
+                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "REJECTED")
@@ -230,8 +268,8 @@ public class BookingControllerTests {
 
     @Test
     void getListOfOwnerBookingsAllTest() throws Exception {
-        Mockito.when(bookingService.getAllByItemList(Mockito.anyList(), Mockito.anyInt(), Mockito.anyInt()))
-                .thenReturn(List.of(booking));
+        Mockito.when(bookingService.getAllByOwnerId(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "ALL")
@@ -249,8 +287,8 @@ public class BookingControllerTests {
 
     @Test
     void getListOfOwnerBookingsFutureTest() throws Exception {
-        Mockito.when(bookingService.getAllByItemListFutureStart(Mockito.anyList(), Mockito.anyInt(), Mockito.anyInt()))
-                .thenReturn(List.of(booking));
+        Mockito.when(bookingService.getAllByOwnerIdFutureStart(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "FUTURE")
@@ -268,8 +306,8 @@ public class BookingControllerTests {
 
     @Test
     void getListOfOwnerBookingsPastTest() throws Exception {
-        Mockito.when(bookingService.getAllByItemListPastEnd(Mockito.anyList(), Mockito.anyInt(), Mockito.anyInt()))
-                .thenReturn(List.of(booking));
+        Mockito.when(bookingService.getAllByOwnerIdPastEnd(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "PAST")
@@ -287,8 +325,8 @@ public class BookingControllerTests {
 
     @Test
     void getListOfOwnerBookingsCurrentTest() throws Exception {
-        Mockito.when(bookingService.getAllByItemListCurrent(Mockito.anyList(), Mockito.anyInt(), Mockito.anyInt()))
-                .thenReturn(List.of(booking));
+        Mockito.when(bookingService.getAllByOwnerIdCurrent(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "CURRENT")
@@ -304,6 +342,50 @@ public class BookingControllerTests {
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
 
+    @Test
+    void getListOfUserBookingsByCursorTest() throws Exception {
+        Mockito.when(bookingService.getAllByBookerIdBeforeCursor(Mockito.anyLong(), Mockito.any(BookingState.class),
+                Mockito.any(BookingCursor.class), Mockito.anyInt())).thenReturn(List.of(bookingView));
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1")
+                        .param("cursor", BookingCursor.of(booking).encode())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, BookingCursor.of(booking).encode()))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+        Mockito.verify(bookingService, Mockito.never()).getAllByBookerId(Mockito.anyLong(), Mockito.anyInt(),
+                Mockito.anyInt());
+    }
+
+    @Test
+    void getListOfOwnerBookingsByCursorTest() throws Exception {
+        Mockito.when(bookingService.getAllByOwnerIdBeforeCursor(Mockito.anyLong(), Mockito.any(BookingState.class),
+                Mockito.any(BookingCursor.class), Mockito.anyInt())).thenReturn(List.of(bookingView));
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", BookingCursor.of(booking).encode())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void getListOfUserBookingsByIllegalCursorTest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", "illegal")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createTest() throws Exception {
         Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
@@ -325,11 +407,25 @@ public class BookingControllerTests {
     }
 
     @Test
-    void updateTest() throws Exception {
+    void createOwnItemWithRenamedOwnerTest() throws Exception {
         Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
-        Mockito.when(bookingService.getById(Mockito.anyLong())).thenReturn(booking);
-        Mockito.when(userService.get(Mockito.anyLong())).thenReturn(secondUser);
-        Mockito.when(bookingService.update(Mockito.any(Booking.class))).thenReturn(booking);
+        Mockito.when(userService.get(Mockito.anyLong())).thenReturn(new User(1, "new_name", "test@test.ru"));
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(bookingShortDto)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("User can't book own item")));
+        Mockito.verify(bookingService, Mockito.never()).create(Mockito.any(Booking.class));
+    }
+
+    @Test
+    void updateTest() throws Exception {
+        Mockito.when(bookingService.updateStatus(1L, 1L, BookingStatus.APPROVED))
+                .thenReturn(new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), item.getId(),
+                        item.getName(), secondUser.getId(), BookingStatus.APPROVED));
         mvc.perform(patch("/bookings/1")
                         .header("X-Sharer-User-Id", 1)
                         .param("approved", "true")
@@ -343,7 +439,81 @@ public class BookingControllerTests {
                 .andExpect(jsonPath("$.end", is(bookingDto.getEnd().toString())))
                 .andExpect(jsonPath("$.item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$.booker.id", is(bookingDto.getBooker().getId()), Long.class))
+                .andExpect(jsonPath("$.item.name", is(item.getName())))
                 .andExpect(jsonPath("$.status", is(BookingStatus.APPROVED.toString())));
+        Mockito.verify(bookingService, Mockito.never()).getById(Mockito.anyLong());
+        Mockito.verify(itemService, Mockito.never()).get(Mockito.anyLong());
+    }
+
+    @Test
+    void updateOverlappingBookingTest() throws Exception {
+        Mockito.when(bookingService.updateStatus(Mockito.anyLong(), Mockito.anyLong(),
+                        Mockito.any(BookingStatus.class)))
+                .thenThrow(new BookingOverlapException("Item: 1 is already booked"));
+        mvc.perform(patch("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Item: 1 is already booked")));
+    }
+
+    @Test
+    void updateViolatingOverlapConstraintTest() throws Exception {
+        Mockito.when(bookingService.updateStatus(Mockito.anyLong(), Mockito.anyLong(),
+                        Mockito.any(BookingStatus.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("conflicting key value violates exclusion constraint",
+                                new SQLException(), "ex_bookings_approved_overlap")));
+        mvc.perform(patch("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Item is already booked for the requested period")));
+    }
+
+    @Test
+    void createBatchTest() throws Exception {
+        BookingShortDto missingItemDto = new BookingShortDto(0, booking.getStart(), booking.getEnd(), 99L, null,
+                null);
+        Mockito.when(userService.get(Mockito.anyLong())).thenReturn(secondUser);
+        Mockito.when(itemService.getByIds(Mockito.anyCollection())).thenReturn(Map.of(item.getId(), item));
+        Mockito.when(bookingService.createAll(Mockito.anyList())).thenReturn(List.of(booking));
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 2)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(bookingShortDto, missingItemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].booking").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Item 99 not found")));
+        Mockito.verify(itemService, Mockito.times(1)).getByIds(Mockito.anyCollection());
+        Mockito.verify(itemService, Mockito.never()).get(Mockito.anyLong());
+    }
+
+    @Test
+    void updateBatchTest() throws Exception {
+        Mockito.when(bookingService.updateAll(Mockito.anyLong(), Mockito.anyMap()))
+                .thenReturn(Map.of(1L, new BookingUpdateResult(new BookingView(booking.getId(), booking.getStart(),
+                                booking.getEnd(), item.getId(), item.getName(), secondUser.getId(),
+                                BookingStatus.APPROVED), null),
+                        5L, new BookingUpdateResult(null, "Booking: 5 not found")));
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(new BookingApprovalDto(1L, true),
+                                new BookingApprovalDto(5L, true), new BookingApprovalDto(1L, false)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.status", is(BookingStatus.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].error", is("Booking: 5 not found")))
+                .andExpect(jsonPath("$[2].error", is("Booking: 1 is repeated in batch")));
+        Mockito.verify(bookingService, Mockito.never()).getById(Mockito.anyLong());
     }
 
     @Test
@@ -379,11 +549,9 @@ public class BookingControllerTests {
 
     @Test
     void bookingControllerThrowsBookingStatusExceptionTest() throws Exception {
-        booking.setStatus(BookingStatus.CANCELED);
-        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
-        Mockito.when(bookingService.getById(Mockito.anyLong())).thenReturn(booking);
-        Mockito.when(userService.get(Mockito.anyLong())).thenReturn(secondUser);
-        Mockito.when(bookingService.update(Mockito.any(Booking.class))).thenReturn(booking);
+        Mockito.when(bookingService.updateStatus(Mockito.anyLong(), Mockito.anyLong(),
+                        Mockito.any(BookingStatus.class)))
+                .thenThrow(new BookingStatusException("Status of booking " + booking.getId() + " is not WAITING"));
         mvc.perform(patch("/bookings/1")
                         .header("X-Sharer-User-Id", 1)
                         .param("approved", "true")
@@ -399,7 +567,7 @@ public class BookingControllerTests {
     void bookingControllerThrowsIllegalPagingArgumentExceptionTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
         Mockito.when(bookingService.getAllByBookerIdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class),
-                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(booking));
+                Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(bookingView));
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "WAITING")
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:indexes")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookingIndexTests {
+    private static final int USERS = 10;
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS = 10_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        BookingStatus[] statuses = BookingStatus.values();
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)",
+                IntStream.rangeClosed(1, USERS)
+                        .mapToObj(i -> new Object[]{i, "user_" + i, "user_" + i + "@test.ru"})
+                        .collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) " +
+                        "values (?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, ITEMS)
+                        .mapToObj(i -> new Object[]{i, "item_" + i, "description", true, i % USERS + 1})
+                        .collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, BOOKINGS)
+                        .mapToObj(i -> new Object[]{
+                                i + 1,
+                                Timestamp.valueOf(now.minusHours(BOOKINGS / 2 - i)),
+                                Timestamp.valueOf(now.minusHours(BOOKINGS / 2 - i).plusDays(1)),
+                                i % ITEMS + 1,
+                                i % USERS + 1,
+                                statuses[i % statuses.length].name()})
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void bookingIndexesExistTest() {
+        Assertions.assertEquals(List.of("OWNER_ID"), indexColumns("ITEMS", "IDX_ITEMS_OWNER"));
+        Assertions.assertEquals(List.of("BOOKER_ID", "START_DATE", "ID"),
+                indexColumns("BOOKINGS", "IDX_BOOKINGS_BOOKER_START"));
+        Assertions.assertEquals(List.of("BOOKER_ID", "STATUS", "START_DATE", "ID"),
+                indexColumns("BOOKINGS", "IDX_BOOKINGS_BOOKER_STATUS_START"));
+        Assertions.assertEquals(List.of("ITEM_ID", "START_DATE", "ID"),
+                indexColumns("BOOKINGS", "IDX_BOOKINGS_ITEM_START"));
+        Assertions.assertEquals(List.of("ITEM_ID", "STATUS", "START_DATE", "ID"),
+                indexColumns("BOOKINGS", "IDX_BOOKINGS_ITEM_STATUS_START"));
+        Assertions.assertEquals(List.of("ITEM_ID", "END_DATE"), indexColumns("BOOKINGS", "IDX_BOOKINGS_ITEM_END"));
+    }
+
+    @Test
+    void bookingQueriesDoNotScanTableTest() {
+        assertNoTableScan("select b.* from bookings b where b.booker_id = 1 " +
+                "order by b.start_date desc, b.id desc limit 21");
+        assertNoTableScan("select b.* from bookings b where b.booker_id = 1 and b.end_date < current_timestamp " +
+                "order by b.start_date desc, b.id desc limit 21");
+        assertNoTableScan("select b.* from bookings b where b.booker_id = 1 and b.status = 'WAITING' " +
+                "order by b.start_date desc, b.id desc limit 21");
+        assertNoTableScan("select b.* from bookings b where b.booker_id = 1 and (b.start_date < current_timestamp " +
+                "or (b.start_date = current_timestamp and b.id < 5000)) order by b.start_date desc, b.id desc limit 21");
+        assertNoTableScan("select b.* from bookings b join items i on i.id = b.item_id where i.owner_id = 1 " +
+                "order by b.start_date desc, b.id desc limit 21");
+        assertNoTableScan("select b.* from bookings b join items i on i.id = b.item_id where i.owner_id = 1 " +
+                "and b.status = 'REJECTED' order by b.start_date desc, b.id desc limit 21");
+        assertNoTableScan("select b.* from bookings b where b.item_id in (1, 2, 3) " +
+                "and b.start_date < current_timestamp and b.status <> 'REJECTED' and b.end_date = " +
+                "(select max(l.end_date) from bookings l where l.item_id = b.item_id " +
+                "and l.start_date < current_timestamp and l.status <> 'REJECTED')");
+        assertNoTableScan("select b.* from bookings b where b.item_id in (1, 2, 3) " +
+                "and b.start_date > current_timestamp and b.status <> 'REJECTED' and b.start_date = " +
+                "(select min(n.start_date) from bookings n where n.item_id = b.item_id " +
+                "and n.start_date > current_timestamp and n.status <> 'REJECTED')");
+        assertNoTableScan("select b.id from bookings b where b.booker_id = 2 and b.item_id = 2 " +
+                "and b.status = 'APPROVED' and b.start_date < current_timestamp limit 1");
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+        Assertions.assertFalse(plan.toLowerCase().contains("tablescan"), plan);
+    }
+
+    private List<String> indexColumns(String table, String index) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            TreeMap<Short, String> columns = new TreeMap<>();
+            try (ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+                while (rs.next()) {
+                    if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        columns.put(rs.getShort("ORDINAL_POSITION"), rs.getString("COLUMN_NAME").toUpperCase());
+                    }
+                }
+            }
+            return new ArrayList<>(columns.values());
+        });
+    }
+}
@@ -6,9 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.exception.BookingNotFound;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.exception.BookingStatusException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.exception.AccessViolationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.OwnerNotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -19,6 +23,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest
 public class BookingServiceTests {
@@ -51,106 +56,138 @@ public class BookingServiceTests {
     }
 
     @Test
-    void getByIdTest() throws BookingNotFound {
+    void getByIdTest() throws BookingNotFound, BookingOverlapException {
         bookingService.create(booking);
         Booking resultBooking = bookingService.getById(1L);
         Assertions.assertEquals(resultBooking, booking);
     }
 
     @Test
-    void getAllByBookerIdTest() {
+    void getAllByBookerIdTest() throws BookingOverlapException {
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByBookerId(secondUser.getId(), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByBookerId(secondUser.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByBookerIdFutureStartTest() {
+    void getAllByBookerIdFutureStartTest() throws BookingOverlapException {
         booking.setStart(start.plusYears(1));
         booking.setEnd(start.plusYears(1).plusDays(1));
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByBookerIdFutureStart(secondUser.getId(), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByBookerIdFutureStart(secondUser.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByBookerIdPastEndTest() {
+    void getAllByBookerIdPastEndTest() throws BookingOverlapException {
         booking.setStart(start.minusYears(1));
         booking.setEnd(start.minusYears(1).plusDays(1));
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByBookerIdPastEnd(secondUser.getId(), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByBookerIdPastEnd(secondUser.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByBookerIdCurrentTest() {
+    void getAllByBookerIdCurrentTest() throws BookingOverlapException {
         booking.setStart(start.minusYears(1));
         booking.setEnd(start.plusYears(1).plusDays(1));
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByBookerIdCurrent(secondUser.getId(), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByBookerIdCurrent(secondUser.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByBookerIdAndStatusTest() {
+    void getAllByBookerIdAndStatusTest() throws BookingOverlapException {
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByBookerIdAndStatus(secondUser.getId(),
+        List<BookingView> resultBookings = bookingService.getAllByBookerIdAndStatus(secondUser.getId(),
                 booking.getStatus(), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByItemListTest() {
+    void getAllByOwnerIdTest() throws BookingOverlapException {
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByItemList(List.of(item.getId()), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByOwnerId(user.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByItemListFutureStartTest() {
+    void getAllByOwnerIdFutureStartTest() throws BookingOverlapException {
         booking.setStart(start.plusYears(1));
         booking.setEnd(start.plusYears(1).plusDays(1));
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByItemListFutureStart(List.of(item.getId()), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByOwnerIdFutureStart(user.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByItemListPastEndTest() {
+    void getAllByOwnerIdPastEndTest() throws BookingOverlapException {
         booking.setStart(start.minusYears(1));
         booking.setEnd(start.minusYears(1).plusDays(1));
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByItemListPastEnd(List.of(item.getId()), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByOwnerIdPastEnd(user.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByItemListAndStatusTest() {
+    void getAllByOwnerIdAndStatusTest() throws BookingOverlapException {
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByItemListAndStatus(List.of(item.getId()),
+        List<BookingView> resultBookings = bookingService.getAllByOwnerIdAndStatus(user.getId(),
                 booking.getStatus(), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void getAllByItemListCurrentTest() {
+    void getAllByOwnerIdCurrentTest() throws BookingOverlapException {
         booking.setStart(start.minusYears(1));
         booking.setEnd(start.plusYears(1).plusDays(1));
         bookingService.create(booking);
-        List<Booking> resultBookings = bookingService.getAllByItemListCurrent(List.of(item.getId()), from, size);
-        Assertions.assertEquals(resultBookings, List.of(booking));
+        List<BookingView> resultBookings = bookingService.getAllByOwnerIdCurrent(user.getId(), from, size);
+        Assertions.assertEquals(resultBookings, List.of(view(booking)));
     }
 
     @Test
-    void updateTest() {
+    void getAllByBookerIdBeforeCursorTest() throws BookingOverlapException {
+        Booking createdBooking = bookingService.create(booking);
+        List<BookingView> resultBookings = bookingService.getAllByBookerIdBeforeCursor(secondUser.getId(), BookingState.ALL,
+                new BookingCursor(start.plusDays(1), Long.MAX_VALUE), size);
+        Assertions.assertEquals(List.of(view(booking)), resultBookings);
+        Assertions.assertTrue(bookingService.getAllByBookerIdBeforeCursor(secondUser.getId(), BookingState.ALL,
+                BookingCursor.of(createdBooking), size).isEmpty());
+    }
+
+    @Test
+    void getAllByOwnerIdBeforeCursorTest() throws BookingOverlapException {
+        Booking createdBooking = bookingService.create(booking);
+        List<BookingView> resultBookings = bookingService.getAllByOwnerIdBeforeCursor(user.getId(), BookingState.WAITING,
+                new BookingCursor(start, Long.MAX_VALUE), size);
+        Assertions.assertEquals(List.of(view(booking)), resultBookings);
+        Assertions.assertTrue(bookingService.getAllByOwnerIdBeforeCursor(user.getId(), BookingState.WAITING,
+                BookingCursor.of(createdBooking), size).isEmpty());
+    }
+
+    @Test
+    void updateStatusTest() throws Exception {
         bookingService.create(booking);
-        Booking modifiedBooking = new Booking(1, start, start.plusDays(1), item, secondUser, BookingStatus.REJECTED);
-        Booking resultBooking = bookingService.update(modifiedBooking);
-        Assertions.assertEquals(resultBooking, modifiedBooking);
+        Assertions.assertEquals(BookingStatus.APPROVED,
+                bookingService.updateStatus(1L, user.getId(), BookingStatus.APPROVED).getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingService.getById(1L).getStatus());
+        final BookingStatusException exception = Assertions.assertThrows(BookingStatusException.class,
+                () -> bookingService.updateStatus(1L, user.getId(), BookingStatus.REJECTED));
+        Assertions.assertEquals("Status of booking 1 is not WAITING", exception.getMessage());
+        Assertions.assertThrows(AccessViolationException.class,
+                () -> bookingService.updateStatus(1L, secondUser.getId(), BookingStatus.REJECTED));
     }
 
     @Test
-    void getLastBookingByItemTest() {
+    void createAllAndUpdateAllTest() throws BookingNotFound, BookingOverlapException, BookingStatusException {
+        Assertions.assertEquals(List.of(booking), bookingService.createAll(List.of(booking)));
+        bookingService.updateAll(user.getId(), Map.of(booking.getId(), BookingStatus.APPROVED));
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingService.getById(booking.getId()).getStatus());
+    }
+
+    @Test
+    void getLastBookingByItemTest() throws BookingOverlapException {
         booking.setStart(start.minusYears(1));
         booking.setEnd(start.minusYears(1).plusDays(1));
         bookingService.create(booking);
@@ -159,7 +196,7 @@ public class BookingServiceTests {
     }
 
     @Test
-    void getNextBookingByItemTest() {
+    void getNextBookingByItemTest() throws BookingOverlapException {
         booking.setStart(start.plusYears(1));
         booking.setEnd(start.plusYears(1).plusDays(1));
         bookingService.create(booking);
@@ -167,10 +204,39 @@ public class BookingServiceTests {
         Assertions.assertEquals(resultBooking, booking);
     }
 
+    @Test
+    void getLastBookingsByItemsTest() throws BookingOverlapException {
+        booking.setStart(start.minusYears(1));
+        booking.setEnd(start.minusYears(1).plusDays(1));
+        bookingService.create(booking);
+        Map<Long, Booking> resultBookings = bookingService.getLastBookingsByItems(List.of(item.getId()));
+        Assertions.assertEquals(Map.of(item.getId(), booking), resultBookings);
+    }
+
+    @Test
+    void getNextBookingsByItemsTest() throws BookingOverlapException {
+        booking.setStart(start.plusYears(1));
+        booking.setEnd(start.plusYears(1).plusDays(1));
+        bookingService.create(booking);
+        Map<Long, Booking> resultBookings = bookingService.getNextBookingsByItems(List.of(item.getId()));
+        Assertions.assertEquals(Map.of(item.getId(), booking), resultBookings);
+    }
+
+    @Test
+    void getBookingsByItemsForEmptyItemListTest() {
+        Assertions.assertTrue(bookingService.getLastBookingsByItems(List.of()).isEmpty());
+        Assertions.assertTrue(bookingService.getNextBookingsByItems(List.of()).isEmpty());
+    }
+
     @Test
     void throwsBookingNotFoundExceptionTest() {
         final BookingNotFound exception = Assertions.assertThrows(BookingNotFound.class,
                 () -> bookingService.getById(99L));
         Assertions.assertEquals("Booking: 99 not found", exception.getMessage());
     }
+
+    private static BookingView view(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getItem().getId(),
+                booking.getItem().getName(), booking.getBooker().getId(), booking.getStatus());
+    }
 }
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+public class ItemAvailabilityIndexTests {
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private final User owner = new User(1, "owner", "owner@test.ru");
+    private final User booker = new User(2, "booker", "booker@test.ru");
+    private final Item item = new Item(1, "item", "description", true, null, owner);
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemAvailabilityIndex itemAvailabilityIndex = new ItemAvailabilityIndex(bookingRepository,
+            itemRepository, 100);
+
+    @BeforeEach
+    void hydrate() {
+        Mockito.when(itemRepository.findIdsByIdIn(Mockito.anyCollection())).thenReturn(List.of(1L));
+        Mockito.when(bookingRepository.findScheduledBookings(Mockito.eq(1L), Mockito.anyCollection()))
+                .thenReturn(List.of(
+                        new ScheduledBooking(2, start.plusDays(5), start.plusDays(6), BookingStatus.WAITING),
+                        new ScheduledBooking(1, start, start.plusDays(3), BookingStatus.APPROVED),
+                        new ScheduledBooking(3, start.plusDays(1), start.plusDays(2), BookingStatus.WAITING)));
+    }
+
+    @Test
+    void isFreeTest() {
+        ItemSchedule schedule = itemAvailabilityIndex.get(1L);
+        Assertions.assertTrue(schedule.isFree(start.minusDays(1), start));
+        Assertions.assertFalse(schedule.isFree(start.plusDays(2), start.plusDays(4)));
+        Assertions.assertTrue(schedule.isFree(start.plusDays(3), start.plusDays(5)));
+        Assertions.assertFalse(schedule.isFree(start.plusDays(4), start.plusDays(7)));
+        Assertions.assertTrue(schedule.isFree(start.plusDays(6), start.plusDays(7)));
+    }
+
+    @Test
+    void overlappingTest() {
+        ItemSchedule schedule = itemAvailabilityIndex.get(1L);
+        Assertions.assertEquals(List.of(1L, 3L), ids(schedule.overlapping(start.plusHours(36), start.plusDays(4))));
+        Assertions.assertEquals(List.of(1L, 3L, 2L), ids(schedule.overlapping(start, start.plusDays(10))));
+        Assertions.assertTrue(schedule.overlapping(start.plusDays(3), start.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void scheduleIsHydratedOnceTest() {
+        itemAvailabilityIndex.get(1L);
+        itemAvailabilityIndex.getAll(List.of(1L, 1L));
+        Mockito.verify(bookingRepository, Mockito.times(1)).findScheduledBookings(Mockito.eq(1L),
+                Mockito.anyCollection());
+    }
+
+    @Test
+    void getAllSkipsUnknownItemsTest() {
+        Assertions.assertEquals(List.of(1L), List.copyOf(itemAvailabilityIndex.getAll(List.of(99L, 1L)).keySet()));
+        Assertions.assertTrue(itemAvailabilityIndex.getAll(List.of(99L)).isEmpty());
+        Mockito.verify(bookingRepository, Mockito.never()).findScheduledBookings(Mockito.eq(99L),
+                Mockito.anyCollection());
+    }
+
+    @Test
+    void clearDropsSchedulesTest() {
+        itemAvailabilityIndex.get(1L);
+        itemAvailabilityIndex.clear();
+        itemAvailabilityIndex.get(1L);
+        Mockito.verify(bookingRepository, Mockito.times(2)).findScheduledBookings(Mockito.eq(1L),
+                Mockito.anyCollection());
+    }
+
+    @Test
+    void updateTest() {
+        itemAvailabilityIndex.get(1L);
+        itemAvailabilityIndex.update(new Booking(4, start.plusDays(3), start.plusDays(4), item, booker,
+                BookingStatus.WAITING));
+        itemAvailabilityIndex.update(new Booking(1, start, start.plusDays(3), item, booker,
+                BookingStatus.REJECTED));
+        ItemSchedule schedule = itemAvailabilityIndex.get(1L);
+        Assertions.assertEquals(3, schedule.size());
+        Assertions.assertFalse(schedule.isFree(start.plusDays(3), start.plusDays(5)));
+        Assertions.assertTrue(schedule.isFree(start, start.plusDays(1)));
+    }
+
+    @Test
+    void updateDuringHydrationIsAppliedTest() throws Exception {
+        CountDownLatch updateStarted = new CountDownLatch(1);
+        Thread updater = new Thread(() -> {
+            updateStarted.countDown();
+            itemAvailabilityIndex.update(new Booking(4, start.plusDays(3), start.plusDays(4), item, booker,
+                    BookingStatus.WAITING));
+        });
+        Mockito.when(bookingRepository.findScheduledBookings(Mockito.eq(1L), Mockito.anyCollection()))
+                .thenAnswer(invocation -> {
+                    updater.start();
+                    updateStarted.await();
+                    Thread.sleep(100);
+                    return List.of(new ScheduledBooking(1, start, start.plusDays(3), BookingStatus.APPROVED));
+                });
+        itemAvailabilityIndex.get(1L);
+        updater.join();
+        ItemSchedule schedule = itemAvailabilityIndex.get(1L);
+        Assertions.assertEquals(2, schedule.size());
+        Assertions.assertFalse(schedule.isFree(start.plusDays(3), start.plusDays(4)));
+    }
+
+    private static List<Long> ids(List<ScheduledBooking> bookings) {
+        return bookings.stream().map(ScheduledBooking::getId).collect(Collectors.toList());
+    }
+}
@@ -6,10 +6,14 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemSchedule;
+import ru.practicum.shareit.booking.availability.ScheduledBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.comment.CommentMapper;
@@ -25,10 +29,15 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -68,6 +77,9 @@ public class ItemControllerTests {
     @MockBean
     ItemRequestService itemRequestService;
 
+    @MockBean
+    ItemAvailabilityIndex itemAvailabilityIndex;
+
     @Autowired
     private MockMvc mvc;
 
@@ -90,14 +102,144 @@ public class ItemControllerTests {
                 .andExpect(jsonPath("$.owner", is(itemWithBookingDto.getOwner()), Long.class))
                 .andExpect(jsonPath("$.lastBooking.id", is(itemWithBookingDto.getLastBooking()
                         .getItemId()), Long.class));
+        Mockito.verify(itemService, Mockito.times(1)).get(1L);
+    }
+
+    @Test
+    void getItemByIdNotModifiedTest() throws Exception {
+        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
+        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(comment));
+        String eTag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Mockito.clearInvocations(itemService, bookingService);
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        Mockito.verify(bookingService, Mockito.never()).getLastBookingByItem(Mockito.anyLong());
+        Mockito.verify(bookingService, Mockito.never()).getNextBookingByItem(Mockito.anyLong());
+    }
+
+    @Test
+    void getItemByIdChangedCommentsTest() throws Exception {
+        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
+        String eTag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(comment));
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id", is(comment.getId()), Long.class));
+    }
+
+    @Test
+    void getItemByIdEditedCommentTest() throws Exception {
+        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
+        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(comment));
+        String eTag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Comment editedComment = new Comment(comment.getId(), "edited_text", item, secondUser, comment.getCreated());
+        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(editedComment));
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].text", is("edited_text")));
+    }
+
+    @Test
+    void getItemByIdRenamedCommentAuthorTest() throws Exception {
+        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
+        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(comment));
+        String eTag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        User renamedAuthor = new User(secondUser.getId(), "renamed_name", secondUser.getEmail());
+        Comment renamedComment = new Comment(comment.getId(), comment.getText(), item, renamedAuthor,
+                comment.getCreated());
+        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(renamedComment));
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName", is("renamed_name")));
+    }
+
+    @Test
+    void getItemByIdChangedNextBookingTest() throws Exception {
+        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
+        Mockito.doReturn(booking).when(bookingService).getNextBookingByItem(Mockito.anyLong());
+        String eTag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Booking movedBooking = new Booking(booking.getId(), booking.getStart().plusDays(1),
+                booking.getEnd().plusDays(1), item, secondUser, BookingStatus.APPROVED);
+        Mockito.doReturn(movedBooking).when(bookingService).getNextBookingByItem(Mockito.anyLong());
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking.status", is("APPROVED")));
+    }
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        Mockito.when(itemService.get(Mockito.anyLong())).thenReturn(item);
+        ItemSchedule schedule = ItemSchedule.of(List.of(ScheduledBooking.of(booking)));
+        Map<Long, ItemSchedule> schedules = new LinkedHashMap<>();
+        schedules.put(1L, schedule);
+        schedules.put(2L, ItemSchedule.of(List.of()));
+        Mockito.when(itemAvailabilityIndex.get(Mockito.anyLong())).thenReturn(schedule);
+        Mockito.when(itemAvailabilityIndex.getAll(Mockito.anyCollection())).thenReturn(schedules);
+        mvc.perform(get("/items/1/availability")
+                        .param("from", booking.getStart().minusDays(1).toString())
+                        .param("to", booking.getStart().plusHours(1).toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.available", is(false)))
+                .andExpect(jsonPath("$.bookings[0].id", is(booking.getId()), Long.class))
+                .andExpect(jsonPath("$.bookings[0].bookerId", nullValue()));
+        mvc.perform(get("/items/availability")
+                        .param("ids", "1", "2")
+                        .param("from", booking.getEnd().toString())
+                        .param("to", booking.getEnd().plusDays(1).toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].available", is(true)))
+                .andExpect(jsonPath("$[1].itemId", is(2)));
+        Mockito.verify(itemService, Mockito.times(1)).get(1L);
     }
 
     @Test
     void getUserItemsTest() throws Exception {
         Mockito.when(itemService.getUserItems(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt()))
                 .thenReturn(List.of(item));
-        Mockito.when(itemService.getCommentsByItemId(Mockito.anyLong())).thenReturn(List.of(comment));
-        Mockito.doReturn(booking).when(bookingService).getLastBookingByItem(Mockito.anyLong());
+        Mockito.when(itemService.getCommentsByItemIds(Mockito.anyCollection()))
+                .thenReturn(Map.of(item.getId(), List.of(comment)));
+        Mockito.when(bookingService.getLastBookingsByItems(Mockito.anyCollection()))
+                .thenReturn(Map.of(item.getId(), booking));
         itemWithBookingDto.setLastBooking(BookingMapper.toBookingShortDto(booking));
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1)
@@ -111,7 +253,11 @@ public class ItemControllerTests {
                 .andExpect(jsonPath("$[0].available", is(itemWithBookingDto.getAvailable())))
                 .andExpect(jsonPath("$[0].owner", is(itemWithBookingDto.getOwner()), Long.class))
                 .andExpect(jsonPath("$[0].lastBooking.id", is(itemWithBookingDto.getLastBooking()
-                        .getItemId()), Long.class));
+                        .getItemId()), Long.class))
+                .andExpect(jsonPath("$[0].comments[0].text", is(comment.getText())));
+        Mockito.verify(itemService, Mockito.never()).getCommentsByItemId(Mockito.anyLong());
+        Mockito.verify(bookingService, Mockito.never()).getLastBookingByItem(Mockito.anyLong());
+        Mockito.verify(bookingService, Mockito.never()).getNextBookingByItem(Mockito.anyLong());
     }
 
     @Test
@@ -152,6 +298,29 @@ public class ItemControllerTests {
                 .andExpect(jsonPath("$.owner", is(itemDto.getOwner()), Long.class));
     }
 
+    @Test
+    void importItemsTest() throws Exception {
+        Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
+        Mockito.when(itemRequestService.getByIds(Mockito.anyCollection())).thenReturn(Map.of());
+        Mockito.when(itemService.addAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        ItemDto requestedItemDto = new ItemDto(0, "requested_item", "item_description", true, 5L, null);
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(itemDto) + "\n"
+                                + mapper.writeValueAsString(requestedItemDto) + "\n"
+                                + "\"not_an_item\"\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[1].index", is(2)));
+        Mockito.verify(userService, Mockito.times(1)).get(1L);
+        Mockito.verify(itemService, Mockito.times(1)).addAll(Mockito.anyList());
+    }
+
     @Test
     void updateTest() throws Exception {
         Mockito.when(userService.get(Mockito.anyLong())).thenReturn(user);
@@ -22,6 +22,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest
 public class ItemServiceTests {
@@ -113,14 +114,6 @@ public class ItemServiceTests {
         Assertions.assertEquals(resultItems, List.of(originalItem));
     }
 
-    @Test
-    void getUserItemsTest() throws Exception {
-        userService.add(user);
-        itemService.add(originalItem);
-        List<Item> resultItems = itemService.getUserItems(1L);
-        Assertions.assertEquals(resultItems, List.of(originalItem));
-    }
-
     @Test
     void getTest() throws Exception {
         userService.add(user);
@@ -137,6 +130,21 @@ public class ItemServiceTests {
         Assertions.assertEquals(resultItems, List.of(originalItem));
     }
 
+    @Test
+    void searchSkipsUnavailableItemsTest() throws Exception {
+        userService.add(user);
+        originalItem.setAvailable(false);
+        itemService.add(originalItem);
+        Assertions.assertTrue(itemService.search("test_name", 0, 20).isEmpty());
+    }
+
+    @Test
+    void searchEscapesWildcardsTest() throws Exception {
+        userService.add(user);
+        itemService.add(originalItem);
+        Assertions.assertTrue(itemService.search("test%name", 0, 20).isEmpty());
+    }
+
     @Test
     void canUserCommentTest() throws Exception {
         userService.add(user);
@@ -168,27 +176,25 @@ public class ItemServiceTests {
     }
 
     @Test
-    void getItemsByRequestIdTest() throws Exception {
+    void getCommentsByItemIdsTest() throws Exception {
         userService.add(user);
         userService.add(secondUser);
-        ItemRequest itemRequest = new ItemRequest(1, "test_description", secondUser, start);
-        itemRequestService.add(itemRequest);
-        originalItem.setRequest(itemRequest);
         itemService.add(originalItem);
-        List<Item> resultItems = itemService.getItemsByRequestId(1L);
-        resultItems.get(0).getRequest().setCreated(start);
-        Assertions.assertEquals(List.of(originalItem), resultItems);
+        itemService.addComment(comment);
+        Map<Long, List<Comment>> resultComments = itemService.getCommentsByItemIds(List.of(1L));
+        resultComments.get(1L).get(0).setCreated(start);
+        Assertions.assertEquals(Map.of(1L, List.of(comment)), resultComments);
     }
 
     @Test
-    void getRequestedItemsTest() throws Exception {
+    void getItemsByRequestIdTest() throws Exception {
         userService.add(user);
         userService.add(secondUser);
         ItemRequest itemRequest = new ItemRequest(1, "test_description", secondUser, start);
         itemRequestService.add(itemRequest);
         originalItem.setRequest(itemRequest);
         itemService.add(originalItem);
-        List<Item> resultItems = itemService.getRequestedItems();
+        List<Item> resultItems = itemService.getItemsByRequestId(1L);
         resultItems.get(0).getRequest().setCreated(start);
         Assertions.assertEquals(List.of(originalItem), resultItems);
     }
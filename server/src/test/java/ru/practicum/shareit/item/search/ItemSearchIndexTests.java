@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+public class ItemSearchIndexTests {
+    private final User owner = new User(1, "owner", "owner@test.ru");
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemSearchIndex itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+
+    @BeforeEach
+    void build() {
+        Mockito.when(itemRepository.findIndexedItems(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(
+                        new IndexedItem(1, "Отвертка", "Аккумуляторная дрель-отвертка", true),
+                        new IndexedItem(2, "Дрель", "Простая дрель", true),
+                        new IndexedItem(3, "Дрель ударная", "Сломана", false),
+                        new IndexedItem(4, "Молоток", "Для гвоздей", true)));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstTest() {
+        Assertions.assertEquals(List.of(2L, 1L), itemSearchIndex.search("ДРЕЛ", 0, 20));
+    }
+
+    @Test
+    void searchPagesRankedResultsTest() {
+        Assertions.assertEquals(List.of(2L), itemSearchIndex.search("дрель", 0, 1));
+        Assertions.assertEquals(List.of(1L), itemSearchIndex.search("дрель", 1, 1));
+        Assertions.assertTrue(itemSearchIndex.search("дрель", 2, 1).isEmpty());
+    }
+
+    @Test
+    void searchSkipsUnavailableItemsTest() {
+        Assertions.assertTrue(itemSearchIndex.search("ударная", 0, 20).isEmpty());
+    }
+
+    @Test
+    void addReplacesExistingItemTest() {
+        itemSearchIndex.add(new Item(4, "Кувалда", "Для гвоздей", true, null, owner));
+        Assertions.assertTrue(itemSearchIndex.search("молоток", 0, 20).isEmpty());
+        Assertions.assertEquals(List.of(4L), itemSearchIndex.search("кувалда", 0, 20));
+        Assertions.assertEquals(4, itemSearchIndex.itemCount());
+    }
+
+    @Test
+    void addReindexesUpdatedItemTest() {
+        itemSearchIndex.add(new Item(3, "Перфоратор", "Починен", true, null, owner));
+        Assertions.assertEquals(List.of(3L), itemSearchIndex.search("перфоратор", 0, 20));
+        Assertions.assertEquals(List.of(2L, 1L), itemSearchIndex.search("дрель", 0, 20));
+        Assertions.assertTrue(itemSearchIndex.search("сломана", 0, 20).isEmpty());
+    }
+
+    @Test
+    void searchMatchesShortSubstringsTest() {
+        Assertions.assertEquals(List.of(2L, 1L), itemSearchIndex.search("ре", 0, 20));
+        Assertions.assertEquals(List.of(4L), itemSearchIndex.search("гвоз", 0, 20));
+        Assertions.assertTrue(itemSearchIndex.search("рельс", 0, 20).isEmpty());
+    }
+
+    @Test
+    void addKeepsTermsSharedWithOtherItemsTest() {
+        itemSearchIndex.addAll(List.of(new Item(2, "Пила", "Ручная", true, null, owner)));
+        Assertions.assertEquals(List.of(1L), itemSearchIndex.search("дрель", 0, 20));
+        Assertions.assertEquals(List.of(2L), itemSearchIndex.search("пила", 0, 20));
+        Assertions.assertEquals(4, itemSearchIndex.itemCount());
+    }
+
+    @Test
+    void rebuildReplacesIndexedItemsTest() {
+        int terms = itemSearchIndex.termCount();
+        long footprint = itemSearchIndex.footprint();
+        itemSearchIndex.rebuild();
+        Assertions.assertEquals(4, itemSearchIndex.itemCount());
+        Assertions.assertEquals(terms, itemSearchIndex.termCount());
+        Assertions.assertEquals(footprint, itemSearchIndex.footprint());
+        Mockito.when(itemRepository.findIndexedItems(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(new IndexedItem(4, "Кувалда", "Для гвоздей", true)));
+        itemSearchIndex.rebuild();
+        Assertions.assertTrue(itemSearchIndex.search("молоток", 0, 20).isEmpty());
+        Assertions.assertEquals(List.of(4L), itemSearchIndex.search("кувалда", 0, 20));
+    }
+
+    @Test
+    void rebuildKeepsItemsChangedWhileReadingTest() {
+        Mockito.when(itemRepository.findIndexedItems(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    itemSearchIndex.add(new Item(4, "Кувалда", "Для гвоздей", true, null, owner));
+                    itemSearchIndex.removeAll(List.of(2L));
+                    return List.of(
+                            new IndexedItem(2, "Дрель", "Простая дрель", true),
+                            new IndexedItem(4, "Молоток", "Для гвоздей", true));
+                });
+        itemSearchIndex.rebuild();
+        Assertions.assertTrue(itemSearchIndex.search("молоток", 0, 20).isEmpty());
+        Assertions.assertEquals(List.of(4L), itemSearchIndex.search("кувалда", 0, 20));
+        Assertions.assertEquals(List.of(1L), itemSearchIndex.search("дрель", 0, 20));
+    }
+
+    @Test
+    void removeAllEvictsItemsTest() {
+        itemSearchIndex.removeAll(List.of(1L, 2L));
+        Assertions.assertTrue(itemSearchIndex.search("дрель", 0, 20).isEmpty());
+        Assertions.assertTrue(itemSearchIndex.search("отвертка", 0, 20).isEmpty());
+        Assertions.assertEquals(List.of(4L), itemSearchIndex.search("молоток", 0, 20));
+        Assertions.assertEquals(2, itemSearchIndex.itemCount());
+    }
+
+    @Test
+    void supportsOnlySingleWordQueriesTest() {
+        Assertions.assertTrue(itemSearchIndex.supports("дрель"));
+        Assertions.assertFalse(itemSearchIndex.supports("аккумуляторная дрель"));
+        Assertions.assertFalse(itemSearchIndex.supports("test%name"));
+        Assertions.assertFalse(new ItemSearchIndex(itemRepository, false).supports("дрель"));
+    }
+
+    @Test
+    void footprintIsReportedTest() {
+        Assertions.assertEquals(4, itemSearchIndex.itemCount());
+        Assertions.assertTrue(itemSearchIndex.termCount() > 0);
+        Assertions.assertTrue(itemSearchIndex.footprint() > 0);
+    }
+}
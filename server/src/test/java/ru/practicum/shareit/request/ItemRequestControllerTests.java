@@ -22,6 +22,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -87,9 +88,10 @@ public class ItemRequestControllerTests {
 
     @Test
     void getAllTest() throws Exception {
-        Mockito.when(itemService.getRequestedItems()).thenReturn(List.of(item));
-        Mockito.when(itemRequestService.getListOfAll(Mockito.anyInt(), Mockito.anyInt())).thenReturn(List.of(itemRequest));
-        Mockito.when(itemService.getItemsByRequestId(Mockito.anyLong())).thenReturn(List.of(item));
+        Mockito.when(itemRequestService.getListOfAll(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(itemRequest));
+        Mockito.when(itemService.getItemsByRequestIds(List.of(itemRequest.getId())))
+                .thenReturn(Map.of(itemRequest.getId(), List.of(item)));
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1)
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -106,7 +108,8 @@ public class ItemRequestControllerTests {
     void getAllByRequestorTest() throws Exception {
         Mockito.when(userService.exist(Mockito.anyLong())).thenReturn(true);
         Mockito.when(itemRequestService.getListByRequestorId(Mockito.anyLong())).thenReturn(List.of(itemRequest));
-        Mockito.when(itemService.getItemsByRequestId(Mockito.anyLong())).thenReturn(List.of(item));
+        Mockito.when(itemService.getItemsByRequestIds(List.of(itemRequest.getId())))
+                .thenReturn(Map.of(itemRequest.getId(), List.of(item)));
         mvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1)
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -49,11 +49,16 @@ public class ItemRequestServiceTests {
 
     @Test
     void getListOfAllTest() {
-        List<ItemRequest> resultItemRequests = itemRequestService.getListOfAll(0, 20);
+        List<ItemRequest> resultItemRequests = itemRequestService.getListOfAll(1L, 0, 20);
         resultItemRequests.get(0).setCreated(itemRequest.getCreated());
         Assertions.assertEquals(resultItemRequests, List.of(itemRequest));
     }
 
+    @Test
+    void getListOfAllExcludesOwnRequestsTest() {
+        Assertions.assertTrue(itemRequestService.getListOfAll(2L, 0, 20).isEmpty());
+    }
+
     @Test
     void existTest() {
         Assertions.assertTrue(itemRequestService.exist(1L));